@@ -0,0 +1,67 @@
+package ru.sb.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.sb.config.security.JwtService;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of resolving the caller of one /tasks request: a single pass in the filter versus the former
+ * filter pass followed by the header scan and second token parse in the controller.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuthenticationBenchmark {
+    private static final String BEARER = "Bearer ";
+
+    @Param({"true", "false"})
+    public boolean claimsCached;
+
+    private JwtService jwtService;
+    private Map<String, String> head;
+
+    @Setup
+    public void setup() {
+        jwtService = new JwtService();
+        head = new LinkedHashMap<>();
+        head.put("host", "localhost:8080");
+        head.put("user-agent", "benchmark");
+        head.put("accept", "application/json");
+        head.put("content-type", "application/json");
+        head.put("authorization", BEARER + jwtService.generateToken("admin@sb.ru"));
+    }
+
+    @Setup(Level.Invocation)
+    public void resetCache() {
+        if (!claimsCached) {
+            jwtService.getClaimsCache().invalidateAll();
+        }
+    }
+
+    @Benchmark
+    public void singlePass(Blackhole blackhole) {
+        blackhole.consume(jwtService.getSubject(head.get("authorization").substring(BEARER.length())));
+    }
+
+    @Benchmark
+    public void filterAndControllerPass(Blackhole blackhole) {
+        blackhole.consume(jwtService.getSubject(head.get("authorization").substring(BEARER.length())));
+        if (!claimsCached) {
+            jwtService.getClaimsCache().invalidateAll();
+        }
+        String jwt = "";
+        for (Map.Entry<String, String> entry : head.entrySet()) {
+            if (entry.getKey().equalsIgnoreCase("Authorization")) {
+                jwt = entry.getValue().substring(BEARER.length());
+            }
+        }
+        blackhole.consume(jwtService.getSubject(jwt));
+    }
+}
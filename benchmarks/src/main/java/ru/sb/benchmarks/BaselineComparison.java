@@ -0,0 +1,90 @@
+package ru.sb.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares two JMH JSON results(-rf json) and fails when the score or gc.alloc.rate.norm of a benchmark
+ * got worse than the baseline by more than the threshold. When the profile of the baseline machine is stored next to
+ * it(<machine>.profile.json), a warning is printed for every difference from the current machine.
+ * Arguments: baseline file, current file, threshold in percent(10 by default).
+ */
+public class BaselineComparison {
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineComparison <baseline.json> <current.json> [threshold %]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10;
+        ObjectMapper objectMapper = new ObjectMapper();
+        checkProfile(objectMapper, new File(args[0].replaceFirst("\\.json$", "") + ".profile.json"));
+        Map<String, JsonNode> baseline = getResults(objectMapper.readTree(new File(args[0])));
+        Map<String, JsonNode> current = getResults(objectMapper.readTree(new File(args[1])));
+        int regressions = 0;
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode expected = baseline.get(entry.getKey());
+            if (expected == null) {
+                System.out.printf("%-80s no baseline%n", entry.getKey());
+                continue;
+            }
+            JsonNode actual = entry.getValue();
+            boolean higherIsBetter = actual.path("mode").asText().equals("thrpt");
+            double scoreChange = getChange(expected.path("primaryMetric").path("score").asDouble(),
+                    actual.path("primaryMetric").path("score").asDouble());
+            boolean regression = higherIsBetter ? scoreChange < -threshold : scoreChange > threshold;
+            String allocation = "";
+            if (actual.path("secondaryMetrics").has(ALLOCATION) && expected.path("secondaryMetrics").has(ALLOCATION)) {
+                double allocationChange = getChange(
+                        expected.path("secondaryMetrics").path(ALLOCATION).path("score").asDouble(),
+                        actual.path("secondaryMetrics").path(ALLOCATION).path("score").asDouble());
+                allocation = String.format("  %s %+.1f%%", ALLOCATION, allocationChange);
+                regression |= allocationChange > threshold;
+            }
+            System.out.printf("%-80s score %+.1f%%%s%s%n", entry.getKey(), scoreChange, allocation,
+                    regression ? "  REGRESSION" : "");
+            if (regression) {
+                regressions++;
+            }
+        }
+        if (regressions > 0) {
+            System.out.printf("%d regression(s) over %.1f%%.%n", regressions, threshold);
+            System.exit(1);
+        }
+    }
+
+    private static void checkProfile(ObjectMapper objectMapper, File profileFile) throws IOException {
+        if (!profileFile.exists()) {
+            System.out.printf("No machine profile(%s) of the baseline, scores may be not comparable.%n", profileFile);
+            return;
+        }
+        JsonNode baseline = objectMapper.readTree(profileFile);
+        MachineProfile.capture().forEach((key, value) -> {
+            if (!baseline.path(key).asText().equals(value)) {
+                System.out.printf("WARNING: baseline %s(%s) differs from the current one(%s), scores may be not comparable.%n",
+                        key, baseline.path(key).asText(), value);
+            }
+        });
+    }
+
+    private static Map<String, JsonNode> getResults(JsonNode results) {
+        Map<String, JsonNode> byName = new LinkedHashMap<>();
+        for (JsonNode result : results) {
+            StringBuilder name = new StringBuilder(result.path("benchmark").asText());
+            result.path("params").fields().forEachRemaining(param ->
+                    name.append(':').append(param.getKey()).append('=').append(param.getValue().asText()));
+            byName.put(name.toString(), result);
+        }
+        return byName;
+    }
+
+    private static double getChange(double expected, double actual) {
+        return expected == 0 ? 0 : (actual - expected) / expected * 100;
+    }
+}
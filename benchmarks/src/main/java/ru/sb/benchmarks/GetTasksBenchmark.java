@@ -0,0 +1,121 @@
+package ru.sb.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.sb.TaskManagementApplication;
+import ru.sb.dto.TaskListResponse;
+import ru.sb.dto.TasksResponse;
+import ru.sb.service.TaskService;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TaskService.getTasks and searchTasks(a word of every task, so the cap of ranked matches is reached) against
+ * PostgreSQL with 10k, 100k and 1M tasks of one author. The tasks are generated once
+ * per size and kept. The benchmark uses its own database(tasks_benchmark on localhost, created when missing, the
+ * schema is created by the application), spring.datasource.* system properties point it to another one.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GetTasksBenchmark {
+    private static final String INSERT_TASKS = "INSERT INTO tasks (title, description, status, priority, author, performer) " +
+            "SELECT 'Task ' || i, 'Description of the task ' || i, " +
+            "(ARRAY['PENDING', 'IN_PROCESS', 'DONE'])[i % 3 + 1]::STATUS, " +
+            "(ARRAY['LOW', 'MEDIUM', 'HIGH'])[i / 3 % 3 + 1]::PRIORITY, ?, " +
+            "CASE WHEN i % 2 = 0 THEN 'user@mail.ru' END " +
+            "FROM generate_series(1, ?) AS i";
+
+    private static final String DEFAULT_URL = "jdbc:postgresql://localhost:5432/tasks_benchmark";
+    private static final String MAINTENANCE_URL = "jdbc:postgresql://localhost:5432/postgres";
+    private static final String INVALID_CATALOG_NAME = "3D000";
+
+    @Param({"10000", "100000", "1000000"})
+    public int tasks;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private Map<String, String> firstPage;
+    private Map<String, String> deepPage;
+    private Map<String, String> cursorPage;
+    private Map<String, String> searchPage;
+
+    @Setup
+    public void setup() throws SQLException {
+        if (System.getProperty("spring.datasource.url") == null) {
+            createDefaultDatabase();
+        }
+        context = new SpringApplicationBuilder(TaskManagementApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.jpa.show-sql=false", "spring.datasource.url=" + DEFAULT_URL)
+                .run();
+        String author = "benchmark-" + tasks + "@sb.ru";
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        Long count = jdbcTemplate.queryForObject("SELECT count(*) FROM tasks WHERE author = ?", Long.class, author);
+        if (count == null || count != tasks) {
+            jdbcTemplate.update("DELETE FROM tasks WHERE author = ?", author);
+            jdbcTemplate.update(INSERT_TASKS, author, tasks);
+            jdbcTemplate.execute("ANALYZE tasks");
+        }
+        taskService = context.getBean(TaskService.class);
+        firstPage = Map.of("author", author, "performer", "user@mail.ru", "status", "DONE", "priority", "HIGH",
+                "offset", "0", "limit", "50");
+        deepPage = Map.of("author", author, "performer", "user@mail.ru", "status", "DONE", "priority", "HIGH",
+                "offset", String.valueOf(tasks / 18 / 50 - 1), "limit", "50");
+        cursorPage = Map.of("author", author, "performer", "user@mail.ru", "status", "DONE", "priority", "HIGH",
+                "cursor", "", "limit", "50");
+        searchPage = Map.of("q", "task", "author", author, "offset", "0", "limit", "50");
+    }
+
+    private static void createDefaultDatabase() throws SQLException {
+        String username = System.getProperty("spring.datasource.username", "postgres");
+        String password = System.getProperty("spring.datasource.password", "admin");
+        try (Connection ignored = DriverManager.getConnection(DEFAULT_URL, username, password)) {
+            return;
+        } catch (SQLException e) {
+            if (!INVALID_CATALOG_NAME.equals(e.getSQLState())) {
+                throw e;
+            }
+        }
+        try (Connection connection = DriverManager.getConnection(MAINTENANCE_URL, username, password);
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE DATABASE tasks_benchmark");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TaskListResponse firstPage() {
+        return taskService.getTasks(firstPage);
+    }
+
+    @Benchmark
+    public TaskListResponse deepPage() {
+        return taskService.getTasks(deepPage);
+    }
+
+    @Benchmark
+    public TaskListResponse cursorPage() {
+        return taskService.getTasks(cursorPage);
+    }
+
+    @Benchmark
+    public TasksResponse searchPage() {
+        return taskService.searchTasks(searchPage);
+    }
+}
@@ -0,0 +1,42 @@
+package ru.sb.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.sb.config.security.JwtService;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token generation and verification of JwtService, getSubject with and without a cached verification.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtServiceBenchmark {
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtService = new JwtService();
+        token = jwtService.generateToken("admin@sb.ru");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken("admin@sb.ru");
+    }
+
+    @Benchmark
+    public String getSubjectCached() {
+        return jwtService.getSubject(token);
+    }
+
+    @Benchmark
+    public String getSubjectVerified() {
+        jwtService.getClaimsCache().invalidateAll();
+        return jwtService.getSubject(token);
+    }
+}
@@ -0,0 +1,54 @@
+package ru.sb.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Prints the profile of the machine(CPU, cores, memory, OS and JVM) as JSON, it is stored next to a baseline
+ * (<machine>.profile.json next to <machine>.json) and BaselineComparison warns when the current machine differs.
+ */
+public class MachineProfile {
+    private static final Path CPU_INFO = Path.of("/proc/cpuinfo");
+
+    public static void main(String[] args) throws IOException {
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(System.out, capture());
+    }
+
+    public static Map<String, String> capture() {
+        Map<String, String> profile = new LinkedHashMap<>();
+        profile.put("os", System.getProperty("os.name") + " " + System.getProperty("os.version"));
+        profile.put("arch", System.getProperty("os.arch"));
+        profile.put("cpu", getCpuModel());
+        profile.put("cores", String.valueOf(Runtime.getRuntime().availableProcessors()));
+        profile.put("memory", getMemory());
+        profile.put("jvm", System.getProperty("java.vm.name") + " " + System.getProperty("java.vm.version"));
+        return profile;
+    }
+
+    private static String getCpuModel() {
+        try {
+            if (Files.isReadable(CPU_INFO)) {
+                for (String line : Files.readAllLines(CPU_INFO)) {
+                    if (line.startsWith("model name")) {
+                        return line.substring(line.indexOf(':') + 1).trim();
+                    }
+                }
+            }
+        } catch (IOException ignored) {
+        }
+        return "unknown";
+    }
+
+    private static String getMemory() {
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os) {
+            return (os.getTotalMemorySize() >> 20) + " MB";
+        }
+        return "unknown";
+    }
+}
@@ -0,0 +1,69 @@
+package ru.sb.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.*;
+import ru.sb.dto.TaskCommentsResponse;
+import ru.sb.dto.TasksResponse;
+import ru.sb.model.Comment;
+import ru.sb.model.Task;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of one GET /tasks?comments=true page: the former Map wrappers versus the record DTOs,
+ * with and without Blackbird. Run with -prof gc to see gc.alloc.rate.norm.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"50", "500"})
+    public int pageSize;
+
+    @Param({"true", "false"})
+    public boolean blackbird;
+
+    private ObjectMapper objectMapper;
+    private Map<String, Object> mapResponse;
+    private TasksResponse recordResponse;
+
+    @Setup
+    public void setup() {
+        objectMapper = new ObjectMapper();
+        if (blackbird) {
+            objectMapper.registerModule(new BlackbirdModule());
+        }
+        List<Map<String, Object>> mapTasks = new ArrayList<>(pageSize);
+        List<TaskCommentsResponse> recordTasks = new ArrayList<>(pageSize);
+        for (long id = 1; id <= pageSize; id++) {
+            Task task = new Task(id, "Task " + id, "Description of the task " + id, Task.Status.IN_PROCESS,
+                    Task.Priority.MEDIUM, "admin@sb.ru", "user@mail.ru");
+            List<Comment> comments = List.of(
+                    new Comment(id * 2, id, "user@mail.ru", "Hello (=", "2024-08-01T10:00:00+03:00"),
+                    new Comment(id * 2 + 1, id, "admin@sb.ru", "Hi :)", "2024-08-01T10:05:00+03:00"));
+            mapTasks.add(Map.of("task", task, "comments", comments));
+            recordTasks.add(new TaskCommentsResponse(task, comments));
+        }
+        mapResponse = Map.of("tasks", mapTasks, "total", (long) pageSize);
+        recordResponse = new TasksResponse(recordTasks, pageSize);
+    }
+
+    @Benchmark
+    public void mapResponse() throws Exception {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), mapResponse);
+    }
+
+    @Benchmark
+    public void recordResponse() throws Exception {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), recordResponse);
+    }
+}
@@ -0,0 +1,103 @@
+package ru.sb.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import ru.sb.dto.TokenResponse;
+import ru.sb.model.Task;
+import ru.sb.model.UserAccount;
+import ru.sb.service.ApiException;
+import ru.sb.service.TaskServiceImpl;
+import ru.sb.service.TaskValidation;
+import ru.sb.service.UserService;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Field validation of a new task(TaskServiceImpl.getNewTask on top of TaskValidation) for accepted and rejected
+ * values, the rejected ones include the cost of the ApiException.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidationBenchmark {
+    private static final UserAccount PERFORMER = new UserAccount("user@mail.ru", true);
+
+    private TaskServiceImpl taskService;
+    private MethodHandle getNewTask;
+    private MethodHandle setPerformerField;
+    private Map<String, String> validFields;
+    private Map<String, String> invalidFields;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        UserService userService = new UserService() {
+            @Override
+            public UserAccount findUserByEmail(String email) {
+                return PERFORMER.getEmail().equals(email) ? PERFORMER : null;
+            }
+
+            @Override
+            public TokenResponse login(Map<String, String> fields) {
+                return null;
+            }
+        };
+        taskService = new TaskServiceImpl(null, userService, null, null, new ObjectMapper(), new SimpleMeterRegistry());
+        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(TaskServiceImpl.class, MethodHandles.lookup());
+        getNewTask = lookup.findVirtual(TaskServiceImpl.class, "getNewTask",
+                MethodType.methodType(Task.class, Map.class));
+        setPerformerField = lookup.findVirtual(TaskServiceImpl.class, "setPerformerField",
+                MethodType.methodType(void.class, Task.class, Map.class, boolean.class));
+        validFields = Map.of("author", "admin@sb.ru", "title", "Task", "description", "Description",
+                "performer", "user@mail.ru", "status", "in_process", "priority", "high");
+        invalidFields = Map.of("author", "admin@sb.ru", "title", "T".repeat(51), "description", "Description",
+                "performer", "nobody@mail.ru", "status", "unknown", "priority", "urgent");
+    }
+
+    @Benchmark
+    public Task validFields() throws Throwable {
+        return validate(validFields);
+    }
+
+    @Benchmark
+    public Object invalidFields() throws Throwable {
+        try {
+            return validate(invalidFields);
+        } catch (ApiException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object invalidPerformer() throws Throwable {
+        try {
+            Task task = new Task();
+            setPerformerField.invoke(taskService, task, invalidFields, false);
+            return task;
+        } catch (ApiException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object invalidStatus() throws Throwable {
+        try {
+            Task task = new Task();
+            TaskValidation.setEnumField(invalidFields, "status", Task.Status.class, false, false, task::setStatus);
+            return task;
+        } catch (ApiException e) {
+            return e;
+        }
+    }
+
+    private Task validate(Map<String, String> fields) throws Throwable {
+        return (Task) getNewTask.invoke(taskService, fields);
+    }
+}
@@ -0,0 +1,138 @@
+package ru.sb.loadtest;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Fills the database of the application(the schema must be created by the application before) with users,
+ * tasks and comments. Authors, performers and commented tasks follow a Zipf distribution, so a few users
+ * and tasks are hot. Rows generated before(emails ending with DOMAIN) are deleted first.
+ */
+public class DataGenerator {
+    public static final String DOMAIN = "@load.test";
+    public static final String PASSWORD = "load";
+    private static final String URL = System.getProperty("load.jdbc-url", "jdbc:postgresql://localhost:5432/tasks");
+    private static final String USERNAME = System.getProperty("load.jdbc-username", "postgres");
+    private static final String JDBC_PASSWORD = System.getProperty("load.jdbc-password", "admin");
+    private static final int USERS = Integer.getInteger("load.users", 100_000);
+    private static final long TASKS = Long.getLong("load.tasks", 2_000_000);
+    private static final long COMMENTS = Long.getLong("load.comments", 4_000_000);
+    private static final double SKEW = Double.parseDouble(System.getProperty("load.skew", "1.0"));
+    private static final double UNASSIGNED = Double.parseDouble(System.getProperty("load.unassigned", "0.2"));
+    private static final int ROWS_PER_WRITE = 10_000;
+    private static final String[] STATUSES = {"PENDING", "IN_PROCESS", "IN_PROCESS", "DONE", "DONE", "DONE"};
+    private static final String[] PRIORITIES = {"LOW", "LOW", "LOW", "MEDIUM", "MEDIUM", "HIGH"};
+    private static final String[] WORDS = {"fix", "report", "release", "review", "deploy", "migrate", "update",
+            "database", "service", "client", "invoice", "dashboard", "login", "export", "import", "cache"};
+
+    public static void main(String[] args) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(URL, USERNAME, JDBC_PASSWORD)) {
+            long start = System.nanoTime();
+            delete(connection);
+            ZipfDistribution users = new ZipfDistribution(USERS, SKEW);
+            copy(connection, "COPY users (email, password) FROM STDIN", USERS, (row, line) ->
+                    line.append(email((int) row + 1)).append('\t').append(PASSWORD));
+            log("users", USERS, start);
+            long lastId = getLong(connection, "SELECT COALESCE(MAX(id), 0) FROM tasks");
+            copy(connection, "COPY tasks (title, description, status, priority, author, performer) FROM STDIN",
+                    TASKS, (row, line) -> {
+                        ThreadLocalRandom random = ThreadLocalRandom.current();
+                        line.append(text(3)).append(' ').append(row).append('\t')
+                                .append(text(8 + random.nextInt(20))).append('\t')
+                                .append(STATUSES[random.nextInt(STATUSES.length)]).append('\t')
+                                .append(PRIORITIES[random.nextInt(PRIORITIES.length)]).append('\t')
+                                .append(email(users.sample())).append('\t')
+                                .append(random.nextDouble() < UNASSIGNED ? "\\N" : email(users.sample()));
+                    });
+            log("tasks", TASKS, start);
+            long firstTaskId = getLong(connection, "SELECT MIN(id) FROM tasks WHERE id > " + lastId);
+            long taskCount = getLong(connection, "SELECT COUNT(*) FROM tasks WHERE id > " + lastId);
+            ZipfDistribution tasks = new ZipfDistribution((int) Math.min(taskCount, Integer.MAX_VALUE - 1), SKEW);
+            OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+            copy(connection, "COPY comments (task_id, author, text, timestamp) FROM STDIN", COMMENTS, (row, line) -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                line.append(firstTaskId + tasks.sample() - 1).append('\t')
+                        .append(email(users.sample())).append('\t')
+                        .append(text(4 + random.nextInt(20))).append('\t')
+                        .append(now.minusSeconds(random.nextInt(365 * 24 * 60 * 60)));
+            });
+            log("comments", COMMENTS, start);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE users");
+                statement.execute("ANALYZE tasks");
+                statement.execute("ANALYZE comments");
+            }
+            log("analyze", 0, start);
+        }
+    }
+
+    private static void delete(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DELETE FROM tasks WHERE author LIKE '%" + DOMAIN + "'");
+            statement.executeUpdate("DELETE FROM users WHERE email LIKE '%" + DOMAIN + "'");
+            statement.executeUpdate("DELETE FROM task_versions WHERE email LIKE '%" + DOMAIN + "'");
+        }
+    }
+
+    private static void copy(Connection connection, String sql, long rows, RowWriter rowWriter) throws SQLException {
+        CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql);
+        try {
+            StringBuilder lines = new StringBuilder();
+            for (long row = 0; row < rows; row++) {
+                rowWriter.write(row, lines);
+                lines.append('\n');
+                if ((row + 1) % ROWS_PER_WRITE == 0 || row == rows - 1) {
+                    byte[] bytes = lines.toString().getBytes(StandardCharsets.UTF_8);
+                    copyIn.writeToCopy(bytes, 0, bytes.length);
+                    lines.setLength(0);
+                }
+            }
+            copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private static long getLong(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    public static String email(int user) {
+        return "user" + user + DOMAIN;
+    }
+
+    private static String text(int words) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+
+    private static void log(String step, long rows, long start) {
+        System.out.printf("%-10s %,12d rows  %,8.1f s%n", step, rows, (System.nanoTime() - start) / 1e9);
+    }
+
+    private interface RowWriter {
+        void write(long row, StringBuilder line);
+    }
+}
@@ -0,0 +1,266 @@
+package ru.sb.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mixed workload against a running instance with the users of DataGenerator. Every worker repeats a random
+ * operation of the mix(weights from load.mix) for a Zipf-picked user. Latency percentiles and throughput per
+ * operation are printed after the warmup is skipped.
+ * By default the loop is closed(the next request is sent after the previous response), with load.rate > 0 requests
+ * are started at a fixed rate(requests per second of all workers) and the latency is measured from the time the
+ * request was scheduled, so the time a request waited for a busy worker is not lost(coordinated omission).
+ */
+public class LoadTest {
+    private static final String URL = System.getProperty("load.url", "http://localhost:8080");
+    private static final int USERS = Integer.getInteger("load.users", 100_000);
+    private static final double SKEW = Double.parseDouble(System.getProperty("load.skew", "1.0"));
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 64);
+    private static final int WARMUP_SECONDS = Integer.getInteger("load.warmup-seconds", 10);
+    private static final int SECONDS = Integer.getInteger("load.seconds", 60);
+    private static final double RATE = Double.parseDouble(System.getProperty("load.rate", "0"));
+    private static final String MIX = System.getProperty("load.mix",
+            "list=40,list-comments=10,cursor=10,poll=10,create=10,status=10,comment=10");
+    private static final long MAX_LATENCY = TimeUnit.SECONDS.toNanos(60);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newFixedThreadPool(CONCURRENCY))
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ZipfDistribution users = new ZipfDistribution(USERS, SKEW);
+    private final Map<Integer, String> tokens = new ConcurrentHashMap<>();
+    private final Map<String, Recorder> recorders = new LinkedHashMap<>();
+    private final Map<String, AtomicLong> errors = new LinkedHashMap<>();
+    private final String[] operations;
+
+    public LoadTest() {
+        List<String> weighted = new ArrayList<>();
+        for (String entry : MIX.split(",")) {
+            String[] operation = entry.trim().split("=");
+            for (int i = 0; i < Integer.parseInt(operation[1]); i++) {
+                weighted.add(operation[0]);
+            }
+            recorders.put(operation[0], new Recorder(MAX_LATENCY, 3));
+            errors.put(operation[0], new AtomicLong());
+        }
+        recorders.put("login", new Recorder(MAX_LATENCY, 3));
+        errors.put("login", new AtomicLong());
+        operations = weighted.toArray(new String[0]);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new LoadTest().run();
+        System.exit(0);
+    }
+
+    private void run() throws Exception {
+        long start = System.nanoTime();
+        long measureStart = start + TimeUnit.SECONDS.toNanos(WARMUP_SECONDS);
+        long deadline = measureStart + TimeUnit.SECONDS.toNanos(SECONDS);
+        AtomicLong scheduled = new AtomicLong();
+        ExecutorService workers = Executors.newFixedThreadPool(CONCURRENCY);
+        for (int i = 0; i < CONCURRENCY; i++) {
+            workers.submit(() -> {
+                Worker worker = new Worker();
+                while (true) {
+                    long scheduledStart = System.nanoTime();
+                    if (RATE > 0) {
+                        scheduledStart = start + (long) (scheduled.getAndIncrement() * 1e9 / RATE);
+                        TimeUnit.NANOSECONDS.sleep(scheduledStart - System.nanoTime());
+                    }
+                    if (scheduledStart >= deadline) {
+                        return null;
+                    }
+                    worker.next(scheduledStart);
+                }
+            });
+        }
+        TimeUnit.NANOSECONDS.sleep(Math.max(0, measureStart - System.nanoTime()));
+        recorders.values().forEach(Recorder::reset);
+        errors.values().forEach(counter -> counter.set(0));
+        workers.shutdown();
+        workers.awaitTermination(SECONDS + 120, TimeUnit.SECONDS);
+        report();
+    }
+
+    private void report() {
+        System.out.printf("%-14s %10s %8s %10s %9s %9s %9s %9s %9s%n",
+                "operation", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        long total = 0;
+        for (Map.Entry<String, Recorder> entry : recorders.entrySet()) {
+            Histogram histogram = entry.getValue().getIntervalHistogram();
+            total += histogram.getTotalCount();
+            System.out.printf("%-14s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.getKey(), histogram.getTotalCount(), errors.get(entry.getKey()).get(),
+                    (double) histogram.getTotalCount() / SECONDS,
+                    histogram.getValueAtPercentile(50) / 1e6, histogram.getValueAtPercentile(90) / 1e6,
+                    histogram.getValueAtPercentile(99) / 1e6, histogram.getValueAtPercentile(99.9) / 1e6,
+                    histogram.getMaxValue() / 1e6);
+        }
+        System.out.printf("total %d requests, %.1f req/s, concurrency %d, %s%n", total, (double) total / SECONDS,
+                CONCURRENCY, RATE > 0 ? String.format("open loop at %.1f req/s", RATE) : "closed loop");
+    }
+
+    private class Worker {
+        private final List<long[]> ownTasks = new ArrayList<>();
+        private final List<long[]> seenTasks = new ArrayList<>();
+        private final Map<Integer, String> eTags = new LinkedHashMap<>();
+        private long scheduledStart;
+
+        private void next(long scheduledStart) {
+            this.scheduledStart = scheduledStart;
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int user = users.sample();
+            String email = encode(DataGenerator.email(user));
+            String operation = operations[random.nextInt(operations.length)];
+            try {
+                String token = getToken(user);
+                switch (operation) {
+                    case "list" -> readTasks(operation, token, user,
+                            "/tasks?author=" + email + "&limit=20");
+                    case "list-comments" -> readTasks(operation, token, user,
+                            "/tasks?performer=" + email + "&comments=true&limit=20");
+                    case "cursor" -> readTasks(operation, token, user,
+                            "/tasks?author=" + email + "&status=DONE&limit=50&cursor=");
+                    case "poll" -> poll(operation, token, user, "/tasks?author=ME&limit=20");
+                    case "create" -> {
+                        String body = String.format("{\"title\":\"Load task\",\"description\":\"Created by the load test\"," +
+                                "\"priority\":\"MEDIUM\",\"performer\":\"%s\"}", DataGenerator.email(users.sample()));
+                        JsonNode result = send(operation, request(token, "/tasks")
+                                .POST(HttpRequest.BodyPublishers.ofString(body)), 201, getStart());
+                        if (result != null) {
+                            remember(ownTasks, result.path("task").path("id").asLong(), user);
+                        }
+                    }
+                    case "status" -> {
+                        if (ownTasks.isEmpty()) {
+                            return;
+                        }
+                        long[] task = ownTasks.get(random.nextInt(ownTasks.size()));
+                        send(operation, request(getToken((int) task[1]), "/tasks/" + task[0] + "/status")
+                                .PUT(HttpRequest.BodyPublishers.ofString("{\"status\":\"IN_PROCESS\"}")), 200, getStart());
+                    }
+                    case "comment" -> {
+                        if (seenTasks.isEmpty()) {
+                            return;
+                        }
+                        long[] task = seenTasks.get(random.nextInt(seenTasks.size()));
+                        send(operation, request(getToken((int) task[1]), "/tasks/" + task[0] + "/comment")
+                                .PUT(HttpRequest.BodyPublishers.ofString("{\"text\":\"Comment of the load test\"}")), 201,
+                                getStart());
+                    }
+                    default -> throw new IllegalArgumentException("Unknown operation " + operation);
+                }
+            } catch (Exception e) {
+                errors.get(operation).incrementAndGet();
+            }
+        }
+
+        private void readTasks(String operation, String token, int user, String path) throws Exception {
+            JsonNode result = send(operation, request(token, path).GET(), 200, getStart());
+            if (result != null) {
+                for (JsonNode task : result.path("tasks")) {
+                    JsonNode id = task.has("task") ? task.path("task").path("id") : task.path("id");
+                    remember(seenTasks, id.asLong(), user);
+                }
+            }
+        }
+
+        private void poll(String operation, String token, int user, String path) throws Exception {
+            HttpRequest.Builder builder = request(token, path).GET();
+            String eTag = eTags.get(user);
+            if (eTag != null) {
+                builder.header("If-None-Match", eTag);
+            }
+            long start = getStart();
+            HttpResponse<String> response = client.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+            record(operation, start, response.statusCode() == 200 || response.statusCode() == 304);
+            response.headers().firstValue("ETag").ifPresent(value -> eTags.put(user, value));
+        }
+
+        // With a fixed rate the latency starts at the scheduled time, it includes the wait for a busy worker.
+        private long getStart() {
+            return RATE > 0 ? scheduledStart : System.nanoTime();
+        }
+
+        private void remember(List<long[]> tasks, long taskId, int user) {
+            if (taskId <= 0) {
+                return;
+            }
+            long[] task = {taskId, user};
+            if (tasks.size() == 1000) {
+                tasks.set(ThreadLocalRandom.current().nextInt(tasks.size()), task);
+            } else {
+                tasks.add(task);
+            }
+        }
+    }
+
+    private String getToken(int user) throws Exception {
+        String token = tokens.get(user);
+        if (token != null) {
+            return token;
+        }
+        String body = String.format("{\"email\":\"%s\",\"password\":\"%s\"}",
+                DataGenerator.email(user), DataGenerator.PASSWORD);
+        JsonNode result = send("login", HttpRequest.newBuilder(URI.create(URL + "/user/login"))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofString(body)), 200, System.nanoTime());
+        if (result == null) {
+            throw new IllegalStateException("Login of user " + user + " failed.");
+        }
+        token = result.path("token").asText();
+        tokens.put(user, token);
+        return token;
+    }
+
+    private HttpRequest.Builder request(String token, String path) {
+        return HttpRequest.newBuilder(URI.create(URL + path))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30));
+    }
+
+    private JsonNode send(String operation, HttpRequest.Builder builder, int expectedStatus, long start)
+            throws Exception {
+        HttpResponse<String> response = client.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+        boolean success = response.statusCode() == expectedStatus;
+        record(operation, start, success);
+        return success ? OBJECT_MAPPER.readTree(response.body()) : null;
+    }
+
+    private void record(String operation, long start, boolean success) {
+        long latency = System.nanoTime() - start;
+        if (success) {
+            recorders.get(operation).recordValue(Math.min(latency, MAX_LATENCY));
+        } else {
+            errors.get(operation).incrementAndGet();
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
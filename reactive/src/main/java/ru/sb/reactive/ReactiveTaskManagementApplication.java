@@ -0,0 +1,15 @@
+package ru.sb.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@SpringBootApplication
+@EnableScheduling
+public class ReactiveTaskManagementApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(ReactiveTaskManagementApplication.class, args);
+	}
+
+}
@@ -0,0 +1,32 @@
+package ru.sb.reactive.config.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+
+@Component
+public class JwtService {
+
+    private static final SecretKey KEY = Jwts.SIG.HS256.key().build();
+    private static final JwtParser PARSER = Jwts.parser().verifyWith(KEY).build();
+    static final long TOKEN_LIFETIME_IN_SECONDS = 24 * 60 * 60;
+
+    public String generateToken(String username) {
+        return Jwts.builder()
+                .subject(username)
+                .issuedAt(new Date(System.currentTimeMillis()))
+                .expiration(new Date(System.currentTimeMillis() + TOKEN_LIFETIME_IN_SECONDS * 1000))
+                .issuer("sb.ru")
+                .signWith(KEY)
+                .compact();
+    }
+
+    public String getSubject(String token) {
+        Claims claims = PARSER.parseSignedClaims(token).getPayload();
+        return claims.getSubject();
+    }
+}
@@ -0,0 +1,35 @@
+package ru.sb.reactive.config.security;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.HashSet;
+import java.util.Set;
+
+@Component
+public class UserRevocationService {
+    private final DatabaseClient databaseClient;
+    private volatile Set<String> revokedEmails = Set.of();
+
+    public UserRevocationService(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public boolean isRevoked(String email) {
+        return revokedEmails.contains(email);
+    }
+
+    @Scheduled(fixedDelayString = "${security.jwt.revocation-refresh-ms:30000}")
+    public Mono<Void> refresh() {
+        return databaseClient.sql("SELECT email FROM user_revocations " +
+                        "WHERE revoked_at > CURRENT_TIMESTAMP - make_interval(secs => :lifetime)")
+                .bind("lifetime", (double) JwtService.TOKEN_LIFETIME_IN_SECONDS)
+                .map((row, metadata) -> row.get("email", String.class))
+                .all()
+                .collect(HashSet<String>::new, Set::add)
+                .doOnNext(emails -> revokedEmails = emails)
+                .then();
+    }
+}
@@ -0,0 +1,67 @@
+package ru.sb.reactive.config.security;
+
+import io.jsonwebtoken.JwtException;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.ServerAuthenticationEntryPoint;
+import org.springframework.security.web.server.authentication.AuthenticationWebFilter;
+import org.springframework.security.web.server.authentication.ServerAuthenticationEntryPointFailureHandler;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@Configuration
+@EnableWebFluxSecurity
+public class WebSecurityConfig {
+    private static final String BEARER = "Bearer ";
+
+    @Bean
+    public SecurityWebFilterChain filterChain(ServerHttpSecurity http, JwtService jwtService,
+                                              UserRevocationService userRevocationService) {
+        ServerAuthenticationEntryPoint entryPoint = (exchange, e) ->
+                Mono.fromRunnable(() -> exchange.getResponse().setStatusCode(HttpStatus.FORBIDDEN));
+        AuthenticationWebFilter jwtFilter = new AuthenticationWebFilter(
+                authenticationManager(jwtService, userRevocationService));
+        jwtFilter.setServerAuthenticationConverter(exchange ->
+                Mono.justOrEmpty(exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION))
+                        .filter(header -> header.startsWith(BEARER))
+                        .map(header -> header.substring(BEARER.length()))
+                        .map(jwt -> UsernamePasswordAuthenticationToken.unauthenticated(jwt, jwt)));
+        jwtFilter.setAuthenticationFailureHandler(new ServerAuthenticationEntryPointFailureHandler(entryPoint));
+        jwtFilter.setSecurityContextRepository(NoOpServerSecurityContextRepository.getInstance());
+        return http
+                .cors(ServerHttpSecurity.CorsSpec::disable)
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .exceptionHandling(exceptions -> exceptions.authenticationEntryPoint(entryPoint))
+                .authorizeExchange(exchanges -> exchanges
+                        .pathMatchers("/user/login").permitAll()
+                        .pathMatchers("/tasks/**").authenticated()
+                        .anyExchange().denyAll())
+                .addFilterAt(jwtFilter, SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+
+    private ReactiveAuthenticationManager authenticationManager(JwtService jwtService,
+                                                                UserRevocationService userRevocationService) {
+        return authentication -> Mono.fromCallable(() -> jwtService.getSubject((String) authentication.getCredentials()))
+                .onErrorMap(JwtException.class, e -> new BadCredentialsException(e.getMessage()))
+                .filter(email -> !userRevocationService.isRevoked(email))
+                .switchIfEmpty(Mono.error(() -> new BadCredentialsException("The token was revoked.")))
+                .map(email -> UsernamePasswordAuthenticationToken.authenticated(
+                        email, null, List.of(new SimpleGrantedAuthority("USER"))));
+    }
+}
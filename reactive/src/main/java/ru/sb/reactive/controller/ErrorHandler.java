@@ -0,0 +1,32 @@
+package ru.sb.reactive.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ResponseStatusException;
+import ru.sb.service.ApiException;
+
+import java.util.Map;
+
+@RestControllerAdvice
+public class ErrorHandler {
+
+    @ExceptionHandler(ApiException.class)
+    public ResponseEntity<Map<String, Object>> handleApiException(ApiException e) {
+        return new ResponseEntity<>(Map.of("error message", e.getMessage()), e.getStatus());
+    }
+
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<Map<String, Object>> handleResponseStatusException(ResponseStatusException e) {
+        return new ResponseEntity<>(Map.of("error message", String.format("ERROR[%d]: %s.",
+                e.getStatusCode().value(), e.getReason())), e.getStatusCode());
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<Map<String, Object>> handleException(Exception e) {
+        HttpStatus status = HttpStatus.INTERNAL_SERVER_ERROR;
+        return new ResponseEntity<>(Map.of("error message", String.format("ERROR[%d]: %s.",
+                status.value(), e.getClass())), status);
+    }
+}
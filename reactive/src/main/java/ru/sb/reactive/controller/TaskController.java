@@ -0,0 +1,80 @@
+package ru.sb.reactive.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.sb.reactive.service.TaskService;
+
+import java.util.Map;
+
+@RestController
+public class TaskController {
+    private TaskService taskService;
+
+    public TaskController(TaskService taskService) {
+        this.taskService = taskService;
+    }
+
+    @PostMapping("/tasks")
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Map<String, Object>> addTask(@AuthenticationPrincipal String email,
+                                             @RequestBody Map<String, String> body) {
+        body.put("author", email);
+        return taskService.addTask(body);
+    }
+
+    @PutMapping("/tasks/{taskId}")
+    public Mono<Map<String, Object>> updateTask(@PathVariable(name = "taskId") Long taskId,
+                                                @AuthenticationPrincipal String email,
+                                                @RequestBody Map<String, String> body) {
+        body.put("author", email);
+        return taskService.updateTask(taskId, body);
+    }
+
+    @GetMapping("/tasks")
+    public Mono<Map<String, Object>> getTasks(@AuthenticationPrincipal String email,
+                                              @RequestParam Map<String, String> queryParameters) {
+        queryParameters.put("requester", email);
+        return taskService.getTasks(queryParameters);
+    }
+
+    @GetMapping(value = "/tasks/export", produces = "application/x-ndjson")
+    public Flux<Object> exportTasks(@AuthenticationPrincipal String email,
+                                    @RequestParam Map<String, String> queryParameters) {
+        queryParameters.put("requester", email);
+        return taskService.exportTasks(queryParameters);
+    }
+
+    @DeleteMapping("/tasks/{taskId}")
+    public Mono<Map<String, Object>> deleteTask(@PathVariable(name = "taskId") Long taskId,
+                                                @AuthenticationPrincipal String email) {
+        return taskService.deleteTask(taskId, email);
+    }
+
+    @PutMapping("/tasks/{taskId}/status")
+    public Mono<Map<String, Object>> setTaskStatus(@PathVariable(name = "taskId") Long taskId,
+                                                   @AuthenticationPrincipal String email,
+                                                   @RequestBody Map<String, String> body) {
+        body.put("requester", email);
+        return taskService.setTaskStatus(taskId, body);
+    }
+
+    @PutMapping("/tasks/{taskId}/performer")
+    public Mono<Map<String, Object>> setTaskPerformer(@PathVariable(name = "taskId") Long taskId,
+                                                      @AuthenticationPrincipal String email,
+                                                      @RequestBody Map<String, String> body) {
+        body.put("author", email);
+        return taskService.setTaskPerformer(taskId, body);
+    }
+
+    @PutMapping("/tasks/{taskId}/comment")
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Map<String, Object>> addComment(@PathVariable(name = "taskId") Long taskId,
+                                                @AuthenticationPrincipal String email,
+                                                @RequestBody Map<String, String> body) {
+        body.put("author", email);
+        return taskService.addComment(taskId, body);
+    }
+}
@@ -0,0 +1,24 @@
+package ru.sb.reactive.controller;
+
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import ru.sb.reactive.service.UserService;
+
+import java.util.Map;
+
+@RestController
+public class UserController {
+
+    private UserService userService;
+
+    public UserController(UserService userService) {
+        this.userService = userService;
+    }
+
+    @PostMapping("/user/login")
+    public Mono<Map<String, Object>> login(@RequestBody Map<String, String> body) {
+        return userService.login(body);
+    }
+}
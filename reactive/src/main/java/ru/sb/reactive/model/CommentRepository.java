@@ -0,0 +1,42 @@
+package ru.sb.reactive.model;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+@Repository
+public class CommentRepository {
+    private final DatabaseClient databaseClient;
+
+    public CommentRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<Comment> findAllByTaskIdIn(Collection<Long> taskIds) {
+        return databaseClient.sql("SELECT id, task_id, author, text, timestamp::text AS date FROM comments " +
+                        "WHERE task_id = ANY(:taskIds) ORDER BY task_id, timestamp, id")
+                .bind("taskIds", taskIds.toArray(new Long[0]))
+                .map((row, metadata) -> new Comment(
+                        row.get("id", Long.class),
+                        row.get("task_id", Long.class),
+                        row.get("author", String.class),
+                        row.get("text", String.class),
+                        row.get("date", String.class)))
+                .all();
+    }
+
+    public Mono<Comment> insert(Comment comment) {
+        return databaseClient.sql("INSERT INTO comments(task_id, author, text, timestamp) " +
+                        "VALUES (:taskId, :author, :text, CAST(:date AS TIMESTAMPTZ)) RETURNING id")
+                .bind("taskId", comment.getTaskId())
+                .bind("author", comment.getAuthor())
+                .bind("text", comment.getText())
+                .bind("date", comment.getDate())
+                .map((row, metadata) -> row.get("id", Long.class))
+                .one()
+                .map(id -> new Comment(id, comment.getTaskId(), comment.getAuthor(), comment.getText(), comment.getDate()));
+    }
+}
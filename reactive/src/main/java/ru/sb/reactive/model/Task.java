@@ -0,0 +1,105 @@
+package ru.sb.reactive.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+public class Task {
+    private Long id;
+    private String title;
+    private String description;
+    private Status status = Status.PENDING;
+    private Priority priority = Priority.LOW;
+    private String author;
+    private String performer;
+    @JsonIgnore
+    private Long version;
+
+    public Task() {
+    }
+
+    public Task(Long id, String title, String description, Status status,
+                Priority priority, String author, String performer) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.status = status;
+        this.priority = priority;
+        this.author = author;
+        this.performer = performer;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Priority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(Priority priority) {
+        this.priority = priority;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public void setAuthor(String author) {
+        this.author = author;
+    }
+
+    public String getPerformer() {
+        return performer;
+    }
+
+    public void setPerformer(String performer) {
+        this.performer = performer;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public enum Status {
+        PENDING,
+        IN_PROCESS,
+        DONE
+    }
+
+    public enum Priority {
+        LOW,
+        MEDIUM,
+        HIGH
+    }
+}
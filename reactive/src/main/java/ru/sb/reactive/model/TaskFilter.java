@@ -0,0 +1,58 @@
+package ru.sb.reactive.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class TaskFilter {
+    private final String author;
+    private final String performer;
+    private final Task.Status status;
+    private final Task.Priority priority;
+
+    public TaskFilter(String author, String performer, Task.Status status, Task.Priority priority) {
+        this.author = author;
+        this.performer = performer;
+        this.status = status;
+        this.priority = priority;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public String getPerformer() {
+        return performer;
+    }
+
+    public Task.Status getStatus() {
+        return status;
+    }
+
+    public Task.Priority getPriority() {
+        return priority;
+    }
+
+    public List<String> getConditions(Map<String, Object> parameters) {
+        List<String> conditions = new ArrayList<>();
+        if (author != null && !author.isEmpty()) {
+            conditions.add("author = :author");
+            parameters.put("author", author);
+        }
+        if (performer == null) {
+            conditions.add("performer IS NULL");
+        } else if (!performer.isEmpty()) {
+            conditions.add("performer = :performer");
+            parameters.put("performer", performer);
+        }
+        if (status != null) {
+            conditions.add("status = CAST(:status AS STATUS)");
+            parameters.put("status", status.name());
+        }
+        if (priority != null) {
+            conditions.add("priority = CAST(:priority AS PRIORITY)");
+            parameters.put("priority", priority.name());
+        }
+        return conditions;
+    }
+}
@@ -0,0 +1,121 @@
+package ru.sb.reactive.model;
+
+import io.r2dbc.spi.Row;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+public class TaskRepository {
+    private static final String COLUMNS =
+            "id, title, description, status::text AS status, priority::text AS priority, author, performer, version";
+    private final DatabaseClient databaseClient;
+
+    public TaskRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<Task> findById(Long id) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM tasks WHERE id = :id")
+                .bind("id", id)
+                .map((row, metadata) -> toTask(row))
+                .one();
+    }
+
+    public Flux<Task> findAll(TaskFilter filter, Long afterId, long offset, long limit) {
+        Map<String, Object> parameters = new HashMap<>();
+        List<String> conditions = filter.getConditions(parameters);
+        if (afterId != null) {
+            conditions.add("id > :afterId");
+            parameters.put("afterId", afterId);
+        }
+        StringBuilder sql = new StringBuilder("SELECT ").append(COLUMNS).append(" FROM tasks")
+                .append(getWhereClause(conditions)).append(" ORDER BY id");
+        if (limit > 0) {
+            sql.append(" LIMIT :limit OFFSET :offset");
+            parameters.put("limit", limit);
+            parameters.put("offset", offset);
+        }
+        return databaseClient.sql(sql.toString())
+                .bindValues(parameters)
+                .map((row, metadata) -> toTask(row))
+                .all();
+    }
+
+    public Mono<Long> count(TaskFilter filter) {
+        Map<String, Object> parameters = new HashMap<>();
+        String sql = "SELECT count(*) AS total FROM tasks" + getWhereClause(filter.getConditions(parameters));
+        return databaseClient.sql(sql)
+                .bindValues(parameters)
+                .map((row, metadata) -> row.get("total", Long.class))
+                .one();
+    }
+
+    public Mono<Task> insert(Task task) {
+        return bindTask(databaseClient.sql("INSERT INTO tasks(title, description, status, priority, author, performer) " +
+                        "VALUES (:title, :description, CAST(:status AS STATUS), CAST(:priority AS PRIORITY), :author, :performer) " +
+                        "RETURNING " + COLUMNS), task)
+                .map((row, metadata) -> toTask(row))
+                .one();
+    }
+
+    /**
+     * Updates the task only if its version is still the read one and bumps the version, so the servlet ETag
+     * of the task changes. Empty if the task was changed or deleted after it was read.
+     */
+    public Mono<Task> update(Task task) {
+        return bindTask(databaseClient.sql("UPDATE tasks SET title = :title, description = :description, " +
+                        "status = CAST(:status AS STATUS), priority = CAST(:priority AS PRIORITY), author = :author, " +
+                        "performer = :performer, version = version + 1 WHERE id = :id AND version = :version " +
+                        "RETURNING " + COLUMNS), task)
+                .bind("id", task.getId())
+                .bind("version", task.getVersion())
+                .map((row, metadata) -> toTask(row))
+                .one();
+    }
+
+    /**
+     * Deletes the task only if its version is still the read one, returns false otherwise.
+     */
+    public Mono<Boolean> delete(Task task) {
+        return databaseClient.sql("DELETE FROM tasks WHERE id = :id AND version = :version")
+                .bind("id", task.getId())
+                .bind("version", task.getVersion())
+                .fetch()
+                .rowsUpdated()
+                .map(rows -> rows > 0);
+    }
+
+    private DatabaseClient.GenericExecuteSpec bindTask(DatabaseClient.GenericExecuteSpec spec, Task task) {
+        spec = spec.bind("title", task.getTitle())
+                .bind("description", task.getDescription())
+                .bind("status", task.getStatus().name())
+                .bind("priority", task.getPriority().name())
+                .bind("author", task.getAuthor());
+        return task.getPerformer() == null
+                ? spec.bindNull("performer", String.class)
+                : spec.bind("performer", task.getPerformer());
+    }
+
+    private String getWhereClause(List<String> conditions) {
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+
+    private static Task toTask(Row row) {
+        Task task = new Task(
+                row.get("id", Long.class),
+                row.get("title", String.class),
+                row.get("description", String.class),
+                Task.Status.valueOf(row.get("status", String.class)),
+                Task.Priority.valueOf(row.get("priority", String.class)),
+                row.get("author", String.class),
+                row.get("performer", String.class));
+        task.setVersion(row.get("version", Long.class));
+        return task;
+    }
+}
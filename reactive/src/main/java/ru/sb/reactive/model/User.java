@@ -0,0 +1,25 @@
+package ru.sb.reactive.model;
+
+public class User {
+    private final String email;
+    private final String password;
+    private final boolean enabled;
+
+    public User(String email, String password, boolean enabled) {
+        this.email = email;
+        this.password = password;
+        this.enabled = enabled;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+}
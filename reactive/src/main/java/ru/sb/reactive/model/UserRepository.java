@@ -0,0 +1,24 @@
+package ru.sb.reactive.model;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+public class UserRepository {
+    private final DatabaseClient databaseClient;
+
+    public UserRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<User> findUserByEmail(String email) {
+        return databaseClient.sql("SELECT email, password, enabled FROM users WHERE email = :email")
+                .bind("email", email)
+                .map((row, metadata) -> new User(
+                        row.get("email", String.class),
+                        row.get("password", String.class),
+                        Boolean.TRUE.equals(row.get("enabled", Boolean.class))))
+                .one();
+    }
+}
@@ -0,0 +1,24 @@
+package ru.sb.reactive.service;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+public interface TaskService {
+    Mono<Map<String, Object>> addTask(Map<String, String> fields);
+
+    Mono<Map<String, Object>> updateTask(Long taskId, Map<String, String> fields);
+
+    Mono<Map<String, Object>> getTasks(Map<String, String> filters);
+
+    Flux<Object> exportTasks(Map<String, String> filters);
+
+    Mono<Map<String, Object>> deleteTask(Long taskId, String requester);
+
+    Mono<Map<String, Object>> setTaskStatus(Long taskId, Map<String, String> fields);
+
+    Mono<Map<String, Object>> setTaskPerformer(Long taskId, Map<String, String> fields);
+
+    Mono<Map<String, Object>> addComment(Long taskId, Map<String, String> fields);
+}
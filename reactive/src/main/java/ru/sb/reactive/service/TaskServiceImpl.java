@@ -0,0 +1,215 @@
+package ru.sb.reactive.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import ru.sb.reactive.model.Comment;
+import ru.sb.reactive.model.CommentRepository;
+import ru.sb.reactive.model.Task;
+import ru.sb.reactive.model.TaskFilter;
+import ru.sb.reactive.model.TaskRepository;
+import ru.sb.reactive.model.UserRepository;
+import ru.sb.service.ApiException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static ru.sb.service.TaskValidation.*;
+
+@Service
+public class TaskServiceImpl implements TaskService {
+    private TaskRepository taskRepository;
+    private CommentRepository commentRepository;
+    private UserRepository userRepository;
+    private static final int EXPORT_CHUNK_SIZE = 500;
+    private static final String CONFLICT_ERROR = "The task(%d) is being changed concurrently, try again.";
+
+    public TaskServiceImpl(TaskRepository taskRepository, CommentRepository commentRepository,
+                           UserRepository userRepository) {
+        this.taskRepository = taskRepository;
+        this.commentRepository = commentRepository;
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public Mono<Map<String, Object>> addTask(Map<String, String> fields) {
+        return Mono.defer(() -> {
+            Task task = new Task();
+            setTextField(fields, "author", MAX_EMAIL_LENGTH, false, true, task::setAuthor);
+            setTextField(fields, "title", MAX_TITLE_LENGTH, false, true, task::setTitle);
+            setTextField(fields, "description", MAX_DESCRIPTION_LENGTH, false, true, task::setDescription);
+            setEnumField(fields, "status", Task.Status.class, false, false, task::setStatus);
+            setEnumField(fields, "priority", Task.Priority.class, false, false, task::setPriority);
+            setTextField(fields, "performer", MAX_EMAIL_LENGTH, true, false, task::setPerformer);
+            return checkPerformer(task, fields);
+        }).flatMap(taskRepository::insert).map(this::getTaskMap);
+    }
+
+    @Override
+    public Mono<Map<String, Object>> updateTask(Long taskId, Map<String, String> fields) {
+        return getTask(taskId).flatMap(task -> {
+            isAuthor(task, fields);
+            setTextField(fields, "title", MAX_TITLE_LENGTH, false, false, task::setTitle);
+            setTextField(fields, "description", MAX_DESCRIPTION_LENGTH, false, false, task::setDescription);
+            setEnumField(fields, "status", Task.Status.class, false, false, task::setStatus);
+            setEnumField(fields, "priority", Task.Priority.class, false, false, task::setPriority);
+            setTextField(fields, "performer", MAX_EMAIL_LENGTH, true, false, task::setPerformer);
+            return checkPerformer(task, fields);
+        }).flatMap(this::update).map(this::getTaskMap);
+    }
+
+    @Override
+    public Mono<Map<String, Object>> getTasks(Map<String, String> filters) {
+        return Mono.defer(() -> {
+            TaskFilter filter = getTaskFilter(filters);
+            long offset = getLongFilterValue(filters, "offset");
+            long limit = getLongFilterValue(filters, "limit");
+            boolean comments = getBooleanFilterValue(filters, "comments");
+            checkPage(offset, limit);
+            if (filters.containsKey("cursor")) {
+                return getTasksAfterCursor(filter, filters.get("cursor"), offset, limit, comments);
+            }
+            return taskRepository.count(filter).flatMap(totalFilteredTask -> {
+                checkSkipped(offset, limit, totalFilteredTask);
+                return taskRepository.findAll(filter, null, offset * limit, limit).collectList()
+                        .flatMap(taskList -> getTasksObject(taskList, comments))
+                        .map(tasksObject -> Map.<String, Object>of("tasks", tasksObject, "total", totalFilteredTask));
+            });
+        });
+    }
+
+    @Override
+    public Flux<Object> exportTasks(Map<String, String> filters) {
+        return Flux.defer(() -> {
+            TaskFilter filter = getTaskFilter(filters);
+            boolean comments = getBooleanFilterValue(filters, "comments");
+            return taskRepository.findAll(filter, null, 0, 0)
+                    .buffer(EXPORT_CHUNK_SIZE)
+                    .concatMap(chunk -> getTasksObject(chunk, comments).flatMapIterable(list -> list));
+        });
+    }
+
+    @Override
+    public Mono<Map<String, Object>> deleteTask(Long taskId, String requester) {
+        return getTask(taskId).flatMap(task -> {
+            isAuthor(task, Map.of("author", requester));
+            return taskRepository.delete(task).flatMap(deleted -> deleted
+                    ? Mono.just(getTaskMap(task))
+                    : Mono.error(conflict(taskId)));
+        });
+    }
+
+    @Override
+    public Mono<Map<String, Object>> setTaskStatus(Long taskId, Map<String, String> fields) {
+        return getTask(taskId).flatMap(task -> {
+            if (fields.containsKey("requester") && fields.get("requester") != null) {
+                if (task.getAuthor().equals(fields.get("requester"))
+                        || fields.get("requester").equals(task.getPerformer())) {
+                    setEnumField(fields, "status", Task.Status.class, false, true, task::setStatus);
+                    return update(task).map(this::getTaskMap);
+                }
+                return Mono.error(new ApiException(HttpStatus.FORBIDDEN,
+                        String.format("You are not an author or a performer of the task(%d).", taskId)));
+            }
+            return Mono.error(new ApiException(HttpStatus.FORBIDDEN, "Can't identify requester."));
+        });
+    }
+
+    @Override
+    public Mono<Map<String, Object>> setTaskPerformer(Long taskId, Map<String, String> fields) {
+        return getTask(taskId).flatMap(task -> {
+            isAuthor(task, fields);
+            setTextField(fields, "performer", MAX_EMAIL_LENGTH, true, true, task::setPerformer);
+            return checkPerformer(task, fields);
+        }).flatMap(this::update).map(this::getTaskMap);
+    }
+
+    @Override
+    public Mono<Map<String, Object>> addComment(Long taskId, Map<String, String> fields) {
+        return Mono.fromCallable(() -> getCommentText(fields))
+                .flatMap(text -> getTask(taskId).flatMap(task ->
+                        commentRepository.insert(new Comment(taskId, fields.get("author"), text))))
+                .map(comment -> Map.of("comment", comment));
+    }
+
+    private Mono<Task> update(Task task) {
+        return taskRepository.update(task).switchIfEmpty(Mono.error(() -> conflict(task.getId())));
+    }
+
+    private ApiException conflict(Long taskId) {
+        return new ApiException(HttpStatus.CONFLICT, String.format(CONFLICT_ERROR, taskId));
+    }
+
+    private Map<String, Object> getTaskMap(Task task) {
+        return Map.of("task", task);
+    }
+
+    private Mono<Map<String, Object>> getTasksAfterCursor(TaskFilter filter, String cursor,
+                                                          long offset, long limit, boolean comments) {
+        checkCursorPage(offset, limit);
+        Long lastId = cursor != null && !cursor.isEmpty() ? decodeCursor(cursor) : null;
+        long pageSize = Math.min(limit, Long.MAX_VALUE - 1);
+        return taskRepository.findAll(filter, lastId, 0, pageSize + 1).collectList().flatMap(taskList -> {
+            String next = null;
+            if (taskList.size() > pageSize) {
+                taskList = taskList.subList(0, (int) pageSize);
+                next = encodeCursor(taskList.get(taskList.size() - 1).getId());
+            }
+            String nextCursor = next;
+            return getTasksObject(taskList, comments).map(tasksObject -> {
+                Map<String, Object> result = new HashMap<>();
+                result.put("tasks", tasksObject);
+                result.put("next", nextCursor);
+                return result;
+            });
+        });
+    }
+
+    private Mono<List<?>> getTasksObject(List<Task> taskList, boolean comments) {
+        if (!comments || taskList.isEmpty()) {
+            return Mono.just(taskList);
+        }
+        return commentRepository.findAllByTaskIdIn(taskList.stream().map(Task::getId).toList())
+                .collectMultimap(Comment::getTaskId)
+                .map(commentsByTask -> taskList.stream()
+                        .map(task -> Map.of("task", task,
+                                "comments", commentsByTask.getOrDefault(task.getId(), List.of())))
+                        .toList());
+    }
+
+    private Mono<Task> getTask(Long taskId) {
+        return taskRepository.findById(taskId)
+                .switchIfEmpty(Mono.error(() -> new ApiException(HttpStatus.NOT_FOUND,
+                        String.format("A task(%d) not exists.", taskId))));
+    }
+
+    private Mono<Task> checkPerformer(Task task, Map<String, String> fields) {
+        String performer = fields.get("performer");
+        if (performer == null) {
+            return Mono.just(task);
+        }
+        return userRepository.findUserByEmail(performer)
+                .map(user -> task)
+                .switchIfEmpty(Mono.error(() -> unknownPerformer(performer)));
+    }
+
+    private TaskFilter getTaskFilter(Map<String, String> filters) throws ApiException {
+        String author = getStringFilterValue(filters, "author");
+        String performer = getStringFilterValue(filters, "performer");
+        Task.Status status = getEnumFilterValue(filters, "status", Task.Status.class);
+        Task.Priority priority = getEnumFilterValue(filters, "priority", Task.Priority.class);
+        if (author == null) {
+            throw ApiException.badRequest("Filter(author) can't be null.");
+        }
+        return new TaskFilter(author, performer, status, priority);
+    }
+
+    private void isAuthor(Task task, Map<String, String> fields) throws ApiException {
+        if (!(fields.containsKey("author") && task.getAuthor().equals(fields.get("author")))) {
+            throw new ApiException(HttpStatus.FORBIDDEN,
+                    String.format("You are not an author of the task(%d).", task.getId()));
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package ru.sb.reactive.service;
+
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+public interface UserService {
+    Mono<Map<String, Object>> login(Map<String, String> fields);
+}
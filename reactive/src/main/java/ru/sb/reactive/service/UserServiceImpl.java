@@ -0,0 +1,33 @@
+package ru.sb.reactive.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import ru.sb.reactive.config.security.JwtService;
+import ru.sb.reactive.model.UserRepository;
+import ru.sb.service.ApiException;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+@Service
+public class UserServiceImpl implements UserService {
+    private UserRepository userRepository;
+    private JwtService jwtService;
+
+    public UserServiceImpl(UserRepository userRepository, JwtService jwtService) {
+        this.userRepository = userRepository;
+        this.jwtService = jwtService;
+    }
+
+    @Override
+    public Mono<Map<String, Object>> login(Map<String, String> fields) {
+        if (!fields.containsKey("email") || !fields.containsKey("password")
+                || fields.get("email") == null || fields.get("password") == null) {
+            return Mono.error(ApiException.badRequest("The Email and Password fields are required and cannot be null."));
+        }
+        return userRepository.findUserByEmail(fields.get("email"))
+                .filter(user -> user.isEnabled() && user.getPassword().equals(fields.get("password")))
+                .map(user -> Map.<String, Object>of("token", jwtService.generateToken(user.getEmail())))
+                .switchIfEmpty(Mono.error(new ApiException(HttpStatus.FORBIDDEN, "Authentication failed.")));
+    }
+}
@@ -0,0 +1,106 @@
+package ru.sb.reactive;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class LoadComparison {
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+    private static final String EMAIL = System.getProperty("load.email", "admin@sb.ru");
+    private static final String PASSWORD = System.getProperty("load.password", "admin");
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 200);
+    private static final int SECONDS = Integer.getInteger("load.seconds", 30);
+    private static final String QUERY = "/tasks?author=" + EMAIL + "&limit=20";
+
+    public static void main(String[] args) throws Exception {
+        String servletUrl = System.getProperty("load.servlet-url", "http://localhost:8080");
+        String reactiveUrl = System.getProperty("load.reactive-url", "http://localhost:8081");
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newFixedThreadPool(CONCURRENCY))
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        run(client, "servlet", servletUrl);
+        run(client, "reactive", reactiveUrl);
+        System.exit(0);
+    }
+
+    private static void run(HttpClient client, String name, String baseUrl) throws Exception {
+        String token = login(client, baseUrl);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + QUERY))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+        long deadline = System.nanoTime() + Duration.ofSeconds(SECONDS).toNanos();
+        ExecutorService workers = Executors.newFixedThreadPool(CONCURRENCY);
+        List<Future<Result>> futures = new ArrayList<>();
+        for (int i = 0; i < CONCURRENCY; i++) {
+            futures.add(workers.submit(() -> {
+                Result result = new Result();
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() == 200) {
+                            result.latencies.add(System.nanoTime() - start);
+                        } else {
+                            result.errors++;
+                        }
+                    } catch (Exception e) {
+                        result.errors++;
+                    }
+                }
+                return result;
+            }));
+        }
+        List<Long> latencies = new ArrayList<>();
+        long errors = 0;
+        for (Future<Result> future : futures) {
+            Result result = future.get();
+            latencies.addAll(result.latencies);
+            errors += result.errors;
+        }
+        workers.shutdown();
+        Collections.sort(latencies);
+        System.out.printf("%-8s requests=%d errors=%d throughput=%.1f req/s p50=%.2f ms p95=%.2f ms p99=%.2f ms%n",
+                name, latencies.size(), errors, (double) latencies.size() / SECONDS,
+                percentile(latencies, 0.50), percentile(latencies, 0.95), percentile(latencies, 0.99));
+    }
+
+    private static String login(HttpClient client, String baseUrl) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/user/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        String.format("{\"email\":\"%s\",\"password\":\"%s\"}", EMAIL, PASSWORD)))
+                .build();
+        String body = client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+        Matcher matcher = TOKEN.matcher(body);
+        if (!matcher.find()) {
+            throw new IllegalStateException("Login to " + baseUrl + " failed: " + body);
+        }
+        return matcher.group(1);
+    }
+
+    private static double percentile(List<Long> sorted, double percentile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+        return sorted.get(Math.max(index, 0)) / 1_000_000.0;
+    }
+
+    private static class Result {
+        private final List<Long> latencies = new ArrayList<>();
+        private long errors;
+    }
+}
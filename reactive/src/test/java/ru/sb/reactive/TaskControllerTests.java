@@ -0,0 +1,212 @@
+package ru.sb.reactive;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import ru.sb.reactive.config.security.JwtService;
+import ru.sb.reactive.config.security.UserRevocationService;
+import ru.sb.reactive.model.Task;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Contract of the reactive /tasks endpoints: the same statuses and error messages as the servlet variant.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+public class TaskControllerTests {
+    @Autowired
+    private WebTestClient client;
+    @Autowired
+    private DatabaseClient databaseClient;
+    @Autowired
+    private JwtService jwtService;
+    @Autowired
+    private UserRevocationService userRevocationService;
+
+    private static final String ERROR_MESSAGE_PATH = "$.['error message']";
+    private static final String AUTHOR = "admin@sb.ru";
+    private static final String USER = "user@mail.ru";
+    private static final int MAX_TITLE_LENGTH = 50;
+
+    @AfterEach
+    public void cleanUp() {
+        databaseClient.sql("DELETE FROM tasks WHERE id > 3").then().block();
+        databaseClient.sql("DELETE FROM comments WHERE id > 3").then().block();
+        databaseClient.sql("DELETE FROM user_revocations").then().block();
+        userRevocationService.refresh().block();
+    }
+
+    @Test
+    public void addTask() {
+        client.post().uri("/tasks")
+                .header("Authorization", "Bearer " + jwtService.generateToken(AUTHOR))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(getTaskFields())
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.task.id").isNumber()
+                .jsonPath("$.task.title").isEqualTo("Task")
+                .jsonPath("$.task.author").isEqualTo(AUTHOR)
+                .jsonPath("$.task.performer").isEqualTo(USER);
+    }
+
+    @Test
+    public void addTaskTitleInvalidValue() {
+        Map<String, String> fields = getTaskFields();
+        fields.put("title", "a".repeat(MAX_TITLE_LENGTH + 1));
+        errorRequest(fields, HttpStatus.BAD_REQUEST, String.format("ERROR[400]: Field(title) exceeds max length(%d > %d).",
+                MAX_TITLE_LENGTH + 1, MAX_TITLE_LENGTH));
+    }
+
+    @Test
+    public void addTaskTitleNotProvided() {
+        Map<String, String> fields = getTaskFields();
+        fields.remove("title");
+        errorRequest(fields, HttpStatus.BAD_REQUEST, "ERROR[400]: Field(title) not found.");
+    }
+
+    @Test
+    public void addTaskStatusInvalidValue() {
+        Map<String, String> fields = getTaskFields();
+        fields.put("status", "unknown");
+        errorRequest(fields, HttpStatus.BAD_REQUEST, String.format("ERROR[400]: Invalid value for status, valid values are %s.",
+                Arrays.toString(Task.Status.values())));
+    }
+
+    @Test
+    public void addTaskPerformerNotExists() {
+        Map<String, String> fields = getTaskFields();
+        fields.put("performer", "nobody@mail.ru");
+        errorRequest(fields, HttpStatus.BAD_REQUEST,
+                "ERROR[400]: Field(performer) can't be set, because user with specified email(nobody@mail.ru) not exists.");
+    }
+
+    @Test
+    public void getTasks() {
+        client.get().uri("/tasks?author=ME&limit=2")
+                .header("Authorization", "Bearer " + jwtService.generateToken(AUTHOR))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.tasks").isArray()
+                .jsonPath("$.total").isNumber();
+    }
+
+    @Test
+    public void getTasksNotAuthorized() {
+        client.get().uri("/tasks")
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+
+    @Test
+    public void getTasksRevokedUser() {
+        String jwtUser = jwtService.generateToken(USER);
+        databaseClient.sql("INSERT INTO user_revocations(email) VALUES (:email)").bind("email", USER).then().block();
+        userRevocationService.refresh().block();
+        client.get().uri("/tasks")
+                .header("Authorization", "Bearer " + jwtUser)
+                .exchange()
+                .expectStatus().isForbidden();
+        databaseClient.sql("DELETE FROM user_revocations WHERE email = :email").bind("email", USER).then().block();
+        userRevocationService.refresh().block();
+        client.get().uri("/tasks")
+                .header("Authorization", "Bearer " + jwtUser)
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    public void getTasksLimitInvalidValue() {
+        errorFilterRequest("/tasks?limit=a", "ERROR[400]: Filter(limit) is not Long type.");
+    }
+
+    @Test
+    public void getTasksOffsetWithoutLimit() {
+        errorFilterRequest("/tasks?offset=1", "ERROR[400]: For an offset value > 0 need to provide a limit value > 0.");
+    }
+
+    @Test
+    public void getTasksStatusInvalidValue() {
+        errorFilterRequest("/tasks?status=unknown", String.format("ERROR[400]: Filter(status) is not one of the expected value %s.",
+                Arrays.toString(Task.Status.values())));
+    }
+
+    @Test
+    public void getTasksCursorWithOffset() {
+        errorFilterRequest("/tasks?cursor=&offset=1&limit=1", "ERROR[400]: Filters(offset) and (cursor) can't be used together.");
+    }
+
+    @Test
+    public void setTaskStatusChangesServletETag() {
+        Long taskId = databaseClient.sql("INSERT INTO tasks (title, description, status, priority, author) " +
+                        "VALUES ('Task', 'Description', 'PENDING', 'LOW', :author) RETURNING id")
+                .bind("author", AUTHOR)
+                .map((row, metadata) -> row.get("id", Long.class))
+                .one().block();
+        // The servlet variant answers with the strong ETag "<version>" of the task.
+        Long version = getVersion(taskId);
+
+        client.put().uri("/tasks/{taskId}/status", taskId)
+                .header("Authorization", "Bearer " + jwtService.generateToken(AUTHOR))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("status", "done"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.task.status").isEqualTo("DONE")
+                .jsonPath("$.task.version").doesNotExist();
+
+        Assertions.assertEquals(version + 1, getVersion(taskId));
+    }
+
+    private Long getVersion(Long taskId) {
+        return databaseClient.sql("SELECT version FROM tasks WHERE id = :id")
+                .bind("id", taskId)
+                .map((row, metadata) -> row.get("version", Long.class))
+                .one().block();
+    }
+
+    private Map<String, String> getTaskFields() {
+        Map<String, String> fields = new HashMap<>();
+        fields.put("title", "Task");
+        fields.put("description", "Description");
+        fields.put("status", "pending");
+        fields.put("priority", "low");
+        fields.put("performer", USER);
+        return fields;
+    }
+
+    private void errorRequest(Map<String, String> body, HttpStatus status, String errorMessage) {
+        client.post().uri("/tasks")
+                .header("Authorization", "Bearer " + jwtService.generateToken(AUTHOR))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isEqualTo(status)
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath(ERROR_MESSAGE_PATH).isEqualTo(errorMessage);
+    }
+
+    private void errorFilterRequest(String uri, String errorMessage) {
+        client.get().uri(uri)
+                .header("Authorization", "Bearer " + jwtService.generateToken(AUTHOR))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath(ERROR_MESSAGE_PATH).isEqualTo(errorMessage);
+    }
+}
@@ -0,0 +1,75 @@
+package ru.sb.reactive;
+
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Contract of the reactive /user/login endpoint: the same statuses and error messages as the servlet variant.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+public class UserControllerTests {
+    @Autowired
+    private WebTestClient client;
+
+    private static final String ERROR_MESSAGE_PATH = "$.['error message']";
+
+    @Test
+    public void login() {
+        client.post().uri("/user/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("email", "admin@sb.ru", "password", "admin"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.token").value(Matchers.matchesPattern(".+\\..+\\..+"));
+    }
+
+    @Test
+    public void loginUnknownCredentials() {
+        errorRequest(Map.of("email", "user@sb.ru", "password", "123"), HttpStatus.FORBIDDEN,
+                "ERROR[403]: Authentication failed.");
+    }
+
+    @Test
+    public void loginWrongPassword() {
+        errorRequest(Map.of("email", "admin@sb.ru", "password", "123"), HttpStatus.FORBIDDEN,
+                "ERROR[403]: Authentication failed.");
+    }
+
+    @Test
+    public void loginEmailNotProvided() {
+        errorRequest(Map.of("password", "123"), HttpStatus.BAD_REQUEST,
+                "ERROR[400]: The Email and Password fields are required and cannot be null.");
+    }
+
+    @Test
+    public void loginPasswordNull() {
+        Map<String, String> body = new HashMap<>();
+        body.put("email", "admin@sb.ru");
+        body.put("password", null);
+        errorRequest(body, HttpStatus.BAD_REQUEST,
+                "ERROR[400]: The Email and Password fields are required and cannot be null.");
+    }
+
+    private void errorRequest(Map<String, String> body, HttpStatus status, String errorMessage) {
+        client.post().uri("/user/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isEqualTo(status)
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath(ERROR_MESSAGE_PATH).isEqualTo(errorMessage);
+    }
+}
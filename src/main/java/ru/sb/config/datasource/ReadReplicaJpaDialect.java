@@ -0,0 +1,43 @@
+package ru.sb.config.datasource;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.sql.SQLException;
+
+/**
+ * A read-only transaction can be served by a replica which lags behind the primary database, entities read by it
+ * are taken from the second-level cache but are not put into it, otherwise a row older than the last change could
+ * be served from the cache to every following request up to the TTL of the region.
+ */
+public class ReadReplicaJpaDialect extends HibernateJpaDialect {
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+            throws PersistenceException, SQLException {
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode previousCacheMode = session.getCacheMode();
+        Object transactionData = super.beginTransaction(entityManager, definition);
+        if (definition.isReadOnly()) {
+            session.setCacheMode(CacheMode.GET);
+        }
+        return new CacheModeTransactionData(transactionData, session, previousCacheMode);
+    }
+
+    @Override
+    public void cleanupTransaction(Object transactionData) {
+        if (transactionData instanceof CacheModeTransactionData data) {
+            data.session().setCacheMode(data.previousCacheMode());
+            super.cleanupTransaction(data.transactionData());
+        } else {
+            super.cleanupTransaction(transactionData);
+        }
+    }
+
+    private record CacheModeTransactionData(Object transactionData, Session session, CacheMode previousCacheMode) {
+    }
+}
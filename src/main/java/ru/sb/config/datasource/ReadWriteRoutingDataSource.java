@@ -0,0 +1,104 @@
+package ru.sb.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+    private static final String PRIMARY = "primary";
+    private static final String LAG_QUERY = "SELECT CASE " +
+            "WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+    private final HikariDataSource primary;
+    private final List<HikariDataSource> replicas;
+    private final double maxLagInSeconds;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private volatile List<Integer> healthyReplicas = List.of();
+
+    public ReadWriteRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas, Duration maxLag) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.maxLagInSeconds = maxLag.toMillis() / 1000.0;
+        Map<Object, Object> targetDataSources = new HashMap<>();
+        targetDataSources.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targetDataSources.put(i, replicas.get(i));
+        }
+        setTargetDataSources(targetDataSources);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        checkReplicas();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        List<Integer> healthy = healthyReplicas;
+        if (healthy.isEmpty()) {
+            return PRIMARY;
+        }
+        return healthy.get(Math.floorMod(nextReplica.getAndIncrement(), healthy.size()));
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (determineCurrentLookupKey() instanceof Integer replica) {
+            try {
+                return replicas.get(replica).getConnection();
+            } catch (SQLException | RuntimeException e) {
+                markUnhealthy(replica);
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replicas.lag-check-ms:5000}")
+    public void checkReplicas() {
+        List<Integer> healthy = new ArrayList<>();
+        for (int i = 0; i < replicas.size(); i++) {
+            try (Connection connection = replicas.get(i).getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+                if (resultSet.next() && resultSet.getDouble(1) <= maxLagInSeconds) {
+                    healthy.add(i);
+                }
+            } catch (SQLException | RuntimeException ignored) {
+            }
+        }
+        healthyReplicas = List.copyOf(healthy);
+    }
+
+    public List<Integer> getHealthyReplicas() {
+        return healthyReplicas;
+    }
+
+    private synchronized void markUnhealthy(Integer replica) {
+        List<Integer> healthy = new ArrayList<>(healthyReplicas);
+        healthy.remove(replica);
+        healthyReplicas = List.copyOf(healthy);
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(HikariDataSource::close);
+        primary.close();
+    }
+}
@@ -0,0 +1,22 @@
+package ru.sb.config.metrics;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.sb.config.security.JwtService;
+import ru.sb.service.UserDirectory;
+
+@Configuration
+public class CacheMetricsConfig {
+
+    @Bean
+    public MeterBinder jwtClaimsCacheMetrics(JwtService jwtService) {
+        return registry -> CaffeineCacheMetrics.monitor(registry, jwtService.getClaimsCache(), "jwtClaims");
+    }
+
+    @Bean
+    public MeterBinder userDirectoryCacheMetrics(UserDirectory userDirectory) {
+        return registry -> CaffeineCacheMetrics.monitor(registry, userDirectory.getCache(), "userDirectory");
+    }
+}
@@ -90,6 +90,51 @@ public class OpenAPIConfig {
         public Integer total;
     }
 
+    public static class TasksCursorSchema {
+        public Task[] tasks;
+        @Schema(description = "Cursor of the next page, null on the last page.", nullable = true)
+        public String next;
+    }
+
+    public static class TaskBatchResultSchema {
+        public Integer index;
+        @Schema(description = "Created task, absent if the task is invalid.")
+        public Task task;
+        @Schema(name = "error message", description = "Validation error, absent if the task is created.")
+        public String errorMessage;
+    }
+
+    public static class TasksBatchSchema {
+        public TaskBatchResultSchema[] tasks;
+        public Integer created;
+        public Integer failed;
+    }
+
+    public static class TaskPriorityCountsSchema {
+        @Schema(name = "LOW")
+        public Long low;
+        @Schema(name = "MEDIUM")
+        public Long medium;
+        @Schema(name = "HIGH")
+        public Long high;
+    }
+
+    public static class TaskStatusCountsSchema {
+        @Schema(name = "PENDING")
+        public TaskPriorityCountsSchema pending;
+        @Schema(name = "IN_PROCESS")
+        public TaskPriorityCountsSchema inProcess;
+        @Schema(name = "DONE")
+        public TaskPriorityCountsSchema done;
+    }
+
+    public static class TaskStatsSchema {
+        @Schema(description = "Tasks where you are the author.")
+        public TaskStatusCountsSchema author;
+        @Schema(description = "Tasks where you are the performer.")
+        public TaskStatusCountsSchema performer;
+    }
+
     public static class TaskCommentsSchema {
         public Task task;
         public Comment comments;
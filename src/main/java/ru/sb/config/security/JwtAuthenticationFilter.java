@@ -5,9 +5,11 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -23,8 +25,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private UserDetailsService userDetailsService;
     @Autowired
     private JwtService jwtService;
+    @Autowired
+    private UserRevocationService userRevocationService;
+    @Value("${security.jwt.stateless:true}")
+    private boolean stateless;
     private static final String AUTHORIZATION = "Authorization";
     private static final String BEARER = "Bearer ";
+    private static final String AUTHORITY = "USER";
 
 
     @Override
@@ -33,8 +40,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String header = req.getHeader(AUTHORIZATION);
         if (header != null && header.startsWith(BEARER)) {
             String username = jwtService.getSubject(header.substring(BEARER.length()));
-            if (StringUtils.hasText(username)) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            if (StringUtils.hasText(username) && !(stateless && userRevocationService.isRevoked(username))) {
+                UserDetails userDetails = stateless
+                        ? User.withUsername(username).password("").authorities(AUTHORITY).build()
+                        : userDetailsService.loadUserByUsername(username);
                 UsernamePasswordAuthenticationToken authentication
                         = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(req));
@@ -1,18 +1,54 @@
 package ru.sb.config.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Component
 public class JwtService {
 
     private static final SecretKey KEY = Jwts.SIG.HS256.key().build();
-    private static final long TOKEN_LIFETIME_IN_SECONDS = 24 * 60 * 60;
+    private static final JwtParser PARSER = Jwts.parser().verifyWith(KEY).build();
+    public static final long TOKEN_LIFETIME_IN_SECONDS = 24 * 60 * 60;
+    private static final int CLAIMS_CACHE_SIZE = 10_000;
+
+    private final Cache<String, Claims> claimsCache = Caffeine.newBuilder()
+            .maximumSize(CLAIMS_CACHE_SIZE)
+            .expireAfter(new Expiry<String, Claims>() {
+                @Override
+                public long expireAfterCreate(String key, Claims claims, long currentTime) {
+                    if (claims.getExpiration() == null) {
+                        return 0;
+                    }
+                    return TimeUnit.MILLISECONDS.toNanos(
+                            Math.max(0, claims.getExpiration().getTime() - System.currentTimeMillis()));
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+
+                @Override
+                public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .recordStats()
+            .build();
 
     public String generateToken(String username) {
         return Jwts.builder()
@@ -25,18 +61,27 @@ public class JwtService {
     }
 
     public String getSubject(String token) {
-        if (isTokenExpired(token)) {
-            return null;
-        }
         return getClaims(token, Claims::getSubject);
     }
 
     public <T> T getClaims(String token, Function<Claims, T> resolver) {
-        return resolver.apply(Jwts.parser().verifyWith(KEY).build().parseSignedClaims(token).getPayload());
+        return resolver.apply(claimsCache.get(hash(token), key -> PARSER.parseSignedClaims(token).getPayload()));
     }
 
     public boolean isTokenExpired(String token) {
         return getClaims(token, Claims::getExpiration).before(new Date());
     }
 
-}
\ No newline at end of file
+    public Cache<String, Claims> getClaimsCache() {
+        return claimsCache;
+    }
+
+    private String hash(String token) {
+        try {
+            return Base64.getEncoder().encodeToString(
+                    MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package ru.sb.config.security;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+
+@Component
+public class UserRevocationService {
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Set<String> revokedEmails = Set.of();
+
+    public UserRevocationService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public boolean isRevoked(String email) {
+        return revokedEmails.contains(email);
+    }
+
+    @Scheduled(fixedDelayString = "${security.jwt.revocation-refresh-ms:30000}")
+    public void refresh() {
+        revokedEmails = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT email FROM user_revocations WHERE revoked_at > CURRENT_TIMESTAMP - make_interval(secs => ?)",
+                String.class, JwtService.TOKEN_LIFETIME_IN_SECONDS));
+    }
+}
@@ -1,5 +1,6 @@
 package ru.sb.config.security;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -31,8 +32,11 @@ public class WebSecurityConfig {
                 .cors(AbstractHttpConfigurer::disable)
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> {
+                    auth.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll();
                     auth.requestMatchers("/user/login").permitAll();
                     auth.requestMatchers("/openapi/**").permitAll();
+                    auth.requestMatchers("/actuator/health/**", "/actuator/prometheus").permitAll();
+                    auth.requestMatchers("/actuator/**").authenticated();
                     auth.requestMatchers("/tasks/**").authenticated();
                 })
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
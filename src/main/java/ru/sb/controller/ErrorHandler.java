@@ -0,0 +1,41 @@
+package ru.sb.controller;
+
+import jakarta.servlet.ServletException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageConversionException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import ru.sb.dto.ErrorResponse;
+import ru.sb.service.ApiException;
+
+@RestControllerAdvice
+public class ErrorHandler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ErrorHandler.class);
+
+    @ExceptionHandler(ApiException.class)
+    public ResponseEntity<ErrorResponse> handleApiException(ApiException e) {
+        return getErrorResponse(e.getStatus(), e.getMessage());
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorResponse> handleException(Exception e) throws Exception {
+        if (e instanceof org.springframework.web.ErrorResponse || e instanceof ServletException
+                || e instanceof HttpMessageConversionException || e instanceof TypeMismatchException) {
+            throw e;
+        }
+        HttpStatus status = HttpStatus.INTERNAL_SERVER_ERROR;
+        LOGGER.error("Unpredicted error.", e);
+        return getErrorResponse(status, String.format("ERROR[%d]: %s.", status.value(), e.getClass()));
+    }
+
+    private ResponseEntity<ErrorResponse> getErrorResponse(HttpStatus status, String message) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ErrorResponse(message));
+    }
+}
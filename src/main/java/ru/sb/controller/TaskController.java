@@ -1,21 +1,37 @@
 package ru.sb.controller;
 
+import io.micrometer.core.annotation.Timed;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.sb.config.openapi.OpenAPIConfig;
-import ru.sb.config.security.JwtService;
+import ru.sb.dto.CommentResponse;
+import ru.sb.dto.TaskListResponse;
+import ru.sb.dto.TaskResponse;
+import ru.sb.dto.TaskStatsResponse;
+import ru.sb.dto.TasksBatchResponse;
+import ru.sb.dto.TasksResponse;
+import ru.sb.dto.VersionedResponse;
 import ru.sb.model.Task;
+import ru.sb.service.TaskExport;
 import ru.sb.service.TaskService;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @SecurityRequirement(name = "JWT", scopes = {"read", "write"})
@@ -23,8 +39,7 @@ import java.util.Map;
 @RestController
 public class TaskController {
     private TaskService taskService;
-    @Autowired
-    private JwtService jwtService;
+    private static final String NDJSON = "application/x-ndjson";
 
 
     public TaskController(TaskService taskService) {
@@ -68,10 +83,112 @@ public class TaskController {
                             )),
             }
     )
+    @Timed("task.controller")
     @PostMapping("/tasks")
-    public ResponseEntity<Map<String, Object>> addTask(@RequestHeader Map<String, String> head,
-                                                       @RequestBody Map<String, String> body) {
-        return getResponse("addTask", -1L, head, body, null, HttpStatus.CREATED);
+    public ResponseEntity<TaskResponse> addTask(@Parameter(hidden = true)
+                                                @AuthenticationPrincipal UserDetails user,
+                                                @RequestBody Map<String, String> body) {
+        body.put("author", user.getUsername());
+        return getTaskResponse(taskService.addTask(body), HttpStatus.CREATED);
+    }
+
+    @Operation(
+            summary = "Add new tasks.",
+            description = "Allows the user to add up to 100000 tasks at once. Each task is validated like a single " +
+                    "new task, valid tasks are created, invalid ones are reported with their index.",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Tasks data.",
+                    content = @Content(
+                            mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = OpenAPIConfig.TaskAddSchema.class))
+                    )
+            ),
+            responses = {
+                    @ApiResponse(
+                            description = "Tasks processed.",
+                            responseCode = "201",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = OpenAPIConfig.TasksBatchSchema.class)
+                            )),
+                    @ApiResponse(
+                            description = "Incorrect data was provided.",
+                            responseCode = "400",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = OpenAPIConfig.ErrorSchema.class)
+                            )),
+                    @ApiResponse(
+                            description = "Unauthenticated access.",
+                            responseCode = "403"),
+                    @ApiResponse(
+                            description = "Unpredicted error.",
+                            responseCode = "500",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = OpenAPIConfig.ErrorSchema.class)
+                            )),
+            }
+    )
+    @Timed("task.controller")
+    @PostMapping("/tasks/batch")
+    public ResponseEntity<TasksBatchResponse> addTasks(@Parameter(hidden = true)
+                                                       @AuthenticationPrincipal UserDetails user,
+                                                       @RequestBody List<Map<String, String>> body) {
+        if (body != null) {
+            for (Map<String, String> task : body) {
+                if (task != null) {
+                    task.put("author", user.getUsername());
+                }
+            }
+        }
+        return new ResponseEntity<>(taskService.addTasks(body), HttpStatus.CREATED);
+    }
+
+    @Operation(
+            summary = "Get a task.",
+            description = "Allows the user to get a task by its id, the ETag header of the response is the version " +
+                    "of the task to send in If-Match of a change.",
+            responses = {
+                    @ApiResponse(
+                            description = "Successful request.",
+                            responseCode = "200",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = OpenAPIConfig.TaskOutputSchema.class)
+                            )),
+                    @ApiResponse(
+                            description = "The task was not changed since If-None-Match.",
+                            responseCode = "304"),
+                    @ApiResponse(
+                            description = "Unauthenticated access.",
+                            responseCode = "403"),
+                    @ApiResponse(
+                            description = "Task with provided task id doesn't exist.",
+                            responseCode = "404",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = OpenAPIConfig.ErrorSchema.class)
+                            )),
+                    @ApiResponse(
+                            description = "Unpredicted error.",
+                            responseCode = "500",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = OpenAPIConfig.ErrorSchema.class)
+                            )),
+            }
+    )
+    @Timed("task.controller")
+    @GetMapping("/tasks/{taskId}")
+    public ResponseEntity<TaskResponse> getTask(@PathVariable(name = "taskId") Long taskId,
+                                                @Parameter(hidden = true)
+                                                WebRequest webRequest) {
+        TaskResponse result = taskService.getTask(taskId);
+        if (webRequest.checkNotModified(getETag(result))) {
+            return null;
+        }
+        return getTaskResponse(result, HttpStatus.OK);
     }
 
     @Operation(
@@ -113,6 +230,20 @@ public class TaskController {
                                     mediaType = "application/json",
                                     schema = @Schema(implementation = OpenAPIConfig.ErrorSchema.class)
                             )),
+                    @ApiResponse(
+                            description = "The task is being changed concurrently, the request can be repeated.",
+                            responseCode = "409",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = OpenAPIConfig.ErrorSchema.class)
+                            )),
+                    @ApiResponse(
+                            description = "The task was changed, it doesn't match If-Match.",
+                            responseCode = "412",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = OpenAPIConfig.ErrorSchema.class)
+                            )),
                     @ApiResponse(
                             description = "Unpredicted error.",
                             responseCode = "500",
@@ -122,11 +253,16 @@ public class TaskController {
                             )),
             }
     )
+    @Timed("task.controller")
     @PutMapping("/tasks/{taskId}")
-    public ResponseEntity<Map<String, Object>> updateTask(@PathVariable(name = "taskId") Long taskId,
-                                                          @RequestHeader Map<String, String> head,
-                                                          @RequestBody Map<String, String> body) {
-        return getResponse("updateTask", taskId, head, body, null, HttpStatus.OK);
+    public ResponseEntity<TaskResponse> updateTask(@PathVariable(name = "taskId") Long taskId,
+                                                   @Parameter(hidden = true)
+                                                   @AuthenticationPrincipal UserDetails user,
+                                                   @Parameter(description = "ETag of the task, if the task was changed the request fails.")
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                   @RequestBody Map<String, String> body) {
+        body.put("author", user.getUsername());
+        return getTaskResponse(taskService.updateTask(taskId, ifMatch, body), HttpStatus.OK);
     }
 
     @Operation(
@@ -167,6 +303,12 @@ public class TaskController {
                             name = "limit",
                             description = "Tasks per page.",
                             schema = @Schema(implementation = Long.class, minimum = "0")
+                    ),
+                    @Parameter(
+                            name = "cursor",
+                            description = "Cursor pagination(empty for the first page, then the value of next from " +
+                                    "the previous page). Can't be used with offset, requires limit.",
+                            schema = @Schema(implementation = String.class)
                     ),},
             responses = {
                     @ApiResponse(
@@ -176,8 +318,12 @@ public class TaskController {
                                     mediaType = "application/json",
                                     allOf = {
                                             @Schema(implementation = OpenAPIConfig.TasksSchema.class),
-                                            @Schema(implementation = OpenAPIConfig.TasksCommentsSchema.class)}
+                                            @Schema(implementation = OpenAPIConfig.TasksCommentsSchema.class),
+                                            @Schema(implementation = OpenAPIConfig.TasksCursorSchema.class)}
                             )),
+                    @ApiResponse(
+                            description = "Tasks of the author(or the performer) were not changed since If-None-Match.",
+                            responseCode = "304"),
                     @ApiResponse(
                             description = "Incorrect data was provided.",
                             responseCode = "400",
@@ -197,11 +343,211 @@ public class TaskController {
                             )),
             }
     )
+    @Timed("task.controller")
     @GetMapping("/tasks")
-    public ResponseEntity<Map<String, Object>> getTasks(@RequestHeader Map<String, String> head,
-                                                        @Parameter(hidden = true)
-                                                        @RequestParam Map<String, String> queryParameters) {
-        return getResponse("getTasks", -1L, head, null, queryParameters, HttpStatus.OK);
+    public ResponseEntity<TaskListResponse> getTasks(@Parameter(hidden = true)
+                                                     @AuthenticationPrincipal UserDetails user,
+                                                     @Parameter(hidden = true)
+                                                     @RequestParam Map<String, String> queryParameters,
+                                                     @Parameter(hidden = true)
+                                                     WebRequest webRequest) {
+        queryParameters.put("requester", user.getUsername());
+        return getVersionedResponse(taskService.getTasks(queryParameters, webRequest::checkNotModified));
+    }
+
+    @Operation(
+            summary = "Search tasks.",
+            description = "Allows the user to find tasks(with|without comments) by words of the title or the description, " +
+                    "tasks with better matches(the title before the description) come first. All matches are ranked " +
+                    "and counted, the total is exact.",
+            parameters = {
+                    @Parameter(
+                            name = "q",
+                            description = "Search query(words, \"quoted phrases\", or, -excluded words).",
+                            required = true,
+                            schema = @Schema(implementation = String.class)
+                    ),
+                    @Parameter(
+                            name = "author",
+                            description = "Author of a task(ME as shortcut for your email).",
+                            schema = @Schema(implementation = String.class)
+                    ),
+                    @Parameter(
+                            name = "performer",
+                            description = "Performer  of a task(ME as shortcut for your email).",
+                            schema = @Schema(implementation = String.class)
+                    ),
+                    @Parameter(
+                            name = "status",
+                            description = "Task status.",
+                            schema = @Schema(implementation = Task.Status.class)
+                    ),
+                    @Parameter(
+                            name = "priority",
+                            description = "Task priority",
+                            schema = @Schema(implementation = Task.Priority.class)
+                    ),
+                    @Parameter(
+                            name = "comments",
+                            description = "Show comments of a task.",
+                            schema = @Schema(implementation = Boolean.class)
+                    ),
+                    @Parameter(
+                            name = "offset",
+                            description = "Number of pages to skip.",
+                            schema = @Schema(implementation = Long.class, minimum = "0")
+                    ),
+                    @Parameter(
+                            name = "limit",
+                            description = "Tasks per page.",
+                            required = true,
+                            schema = @Schema(implementation = Long.class, minimum = "1")
+                    ),},
+            responses = {
+                    @ApiResponse(
+                            description = "Successful request.",
+                            responseCode = "200",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    allOf = {
+                                            @Schema(implementation = OpenAPIConfig.TasksSchema.class),
+                                            @Schema(implementation = OpenAPIConfig.TasksCommentsSchema.class)}
+                            )),
+                    @ApiResponse(
+                            description = "Tasks of the author(or the performer) were not changed since If-None-Match.",
+                            responseCode = "304"),
+                    @ApiResponse(
+                            description = "Incorrect data was provided.",
+                            responseCode = "400",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = OpenAPIConfig.ErrorSchema.class)
+                            )),
+                    @ApiResponse(
+                            description = "Unauthenticated access.",
+                            responseCode = "403"),
+                    @ApiResponse(
+                            description = "Unpredicted error.",
+                            responseCode = "500",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = OpenAPIConfig.ErrorSchema.class)
+                            )),
+            }
+    )
+    @Timed("task.controller")
+    @GetMapping("/tasks/search")
+    public ResponseEntity<TasksResponse> searchTasks(@Parameter(hidden = true)
+                                                     @AuthenticationPrincipal UserDetails user,
+                                                     @Parameter(hidden = true)
+                                                     @RequestParam Map<String, String> queryParameters,
+                                                     @Parameter(hidden = true)
+                                                     WebRequest webRequest) {
+        queryParameters.put("requester", user.getUsername());
+        return getVersionedResponse(taskService.searchTasks(queryParameters, webRequest::checkNotModified));
+    }
+
+    @Operation(
+            summary = "Get task statistics.",
+            description = "Allows the user to get the number of tasks where the user is the author and where " +
+                    "the user is the performer, grouped by status and priority.",
+            responses = {
+                    @ApiResponse(
+                            description = "Successful request.",
+                            responseCode = "200",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = OpenAPIConfig.TaskStatsSchema.class)
+                            )),
+                    @ApiResponse(
+                            description = "Unauthenticated access.",
+                            responseCode = "403"),
+                    @ApiResponse(
+                            description = "Unpredicted error.",
+                            responseCode = "500",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = OpenAPIConfig.ErrorSchema.class)
+                            )),
+            }
+    )
+    @Timed("task.controller")
+    @GetMapping("/tasks/stats")
+    public ResponseEntity<TaskStatsResponse> getTaskStats(@Parameter(hidden = true)
+                                                          @AuthenticationPrincipal UserDetails user) {
+        return ResponseEntity.ok(taskService.getTaskStats(user.getUsername()));
+    }
+
+    @Operation(
+            summary = "Export tasks.",
+            description = "Allows the user to export all tasks(with|without comments) which match the filters, " +
+                    "one JSON object per line.",
+            parameters = {
+                    @Parameter(
+                            name = "author",
+                            description = "Author of a task(ME as shortcut for your email).",
+                            schema = @Schema(implementation = String.class)
+                    ),
+                    @Parameter(
+                            name = "performer",
+                            description = "Performer  of a task(ME as shortcut for your email).",
+                            schema = @Schema(implementation = String.class)
+                    ),
+                    @Parameter(
+                            name = "status",
+                            description = "Task status.",
+                            schema = @Schema(implementation = Task.Status.class)
+                    ),
+                    @Parameter(
+                            name = "priority",
+                            description = "Task priority",
+                            schema = @Schema(implementation = Task.Priority.class)
+                    ),
+                    @Parameter(
+                            name = "comments",
+                            description = "Show comments of a task.",
+                            schema = @Schema(implementation = Boolean.class)
+                    ),},
+            responses = {
+                    @ApiResponse(
+                            description = "Successful request.",
+                            responseCode = "200",
+                            content = @Content(
+                                    mediaType = NDJSON,
+                                    allOf = {
+                                            @Schema(implementation = OpenAPIConfig.TaskOutputSchema.class),
+                                            @Schema(implementation = OpenAPIConfig.TaskCommentsSchema.class)}
+                            )),
+                    @ApiResponse(
+                            description = "Incorrect data was provided.",
+                            responseCode = "400",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = OpenAPIConfig.ErrorSchema.class)
+                            )),
+                    @ApiResponse(
+                            description = "Unauthenticated access.",
+                            responseCode = "403"),
+                    @ApiResponse(
+                            description = "Unpredicted error.",
+                            responseCode = "500",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = OpenAPIConfig.ErrorSchema.class)
+                            )),
+            }
+    )
+    @Timed("task.controller")
+    @GetMapping("/tasks/export")
+    public ResponseEntity<StreamingResponseBody> exportTasks(@Parameter(hidden = true)
+                                                             @AuthenticationPrincipal UserDetails user,
+                                                             @Parameter(hidden = true)
+                                                             @RequestParam Map<String, String> queryParameters) {
+        queryParameters.put("requester", user.getUsername());
+        TaskExport export = taskService.exportTasks(queryParameters);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(export::writeTo);
     }
 
     @Operation(
@@ -229,6 +575,20 @@ public class TaskController {
                                     mediaType = "application/json",
                                     schema = @Schema(implementation = OpenAPIConfig.ErrorSchema.class)
                             )),
+                    @ApiResponse(
+                            description = "The task is being changed concurrently, the request can be repeated.",
+                            responseCode = "409",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = OpenAPIConfig.ErrorSchema.class)
+                            )),
+                    @ApiResponse(
+                            description = "The task was changed, it doesn't match If-Match.",
+                            responseCode = "412",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = OpenAPIConfig.ErrorSchema.class)
+                            )),
                     @ApiResponse(
                             description = "Unpredicted error.",
                             responseCode = "500",
@@ -238,10 +598,16 @@ public class TaskController {
                             )),
             }
     )
+    @Timed("task.controller")
     @DeleteMapping("/tasks/{taskId}")
-    public ResponseEntity<Map<String, Object>> deleteTask(@PathVariable(name = "taskId") Long taskId,
-                                                          @RequestHeader Map<String, String> head) {
-        return getResponse("deleteTask", taskId, head, null, null, HttpStatus.OK);
+    public ResponseEntity<TaskResponse> deleteTask(@PathVariable(name = "taskId") Long taskId,
+                                                   @Parameter(hidden = true)
+                                                   @AuthenticationPrincipal UserDetails user,
+                                                   @Parameter(description = "ETag of the task, if the task was changed the request fails.")
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Map<String, String> fields = new HashMap<>();
+        fields.put("author", user.getUsername());
+        return ResponseEntity.ok(taskService.deleteTask(taskId, ifMatch, fields));
     }
 
     @Operation(
@@ -283,6 +649,20 @@ public class TaskController {
                                     mediaType = "application/json",
                                     schema = @Schema(implementation = OpenAPIConfig.ErrorSchema.class)
                             )),
+                    @ApiResponse(
+                            description = "The task is being changed concurrently, the request can be repeated.",
+                            responseCode = "409",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = OpenAPIConfig.ErrorSchema.class)
+                            )),
+                    @ApiResponse(
+                            description = "The task was changed, it doesn't match If-Match.",
+                            responseCode = "412",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = OpenAPIConfig.ErrorSchema.class)
+                            )),
                     @ApiResponse(
                             description = "Unpredicted error.",
                             responseCode = "500",
@@ -292,11 +672,16 @@ public class TaskController {
                             )),
             }
     )
+    @Timed("task.controller")
     @PutMapping("/tasks/{taskId}/status")
-    public ResponseEntity<Map<String, Object>> setTaskStatus(@PathVariable(name = "taskId") Long taskId,
-                                                             @RequestHeader Map<String, String> head,
-                                                             @RequestBody Map<String, String> body) {
-        return getResponse("setTaskStatus", taskId, head, body, null, HttpStatus.OK);
+    public ResponseEntity<TaskResponse> setTaskStatus(@PathVariable(name = "taskId") Long taskId,
+                                                      @Parameter(hidden = true)
+                                                      @AuthenticationPrincipal UserDetails user,
+                                                      @Parameter(description = "ETag of the task, if the task was changed the request fails.")
+                                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                      @RequestBody Map<String, String> body) {
+        body.put("requester", user.getUsername());
+        return getTaskResponse(taskService.setTaskStatus(taskId, ifMatch, body), HttpStatus.OK);
     }
 
     @Operation(
@@ -338,6 +723,20 @@ public class TaskController {
                                     mediaType = "application/json",
                                     schema = @Schema(implementation = OpenAPIConfig.ErrorSchema.class)
                             )),
+                    @ApiResponse(
+                            description = "The task is being changed concurrently, the request can be repeated.",
+                            responseCode = "409",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = OpenAPIConfig.ErrorSchema.class)
+                            )),
+                    @ApiResponse(
+                            description = "The task was changed, it doesn't match If-Match.",
+                            responseCode = "412",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = OpenAPIConfig.ErrorSchema.class)
+                            )),
                     @ApiResponse(
                             description = "Unpredicted error.",
                             responseCode = "500",
@@ -347,11 +746,166 @@ public class TaskController {
                             )),
             }
     )
+    @Timed("task.controller")
     @PutMapping("/tasks/{taskId}/performer")
-    public ResponseEntity<Map<String, Object>> setTaskPerformer(@PathVariable(name = "taskId") Long taskId,
-                                                                @RequestHeader Map<String, String> head,
-                                                                @RequestBody Map<String, String> body) {
-        return getResponse("setTaskPerformer", taskId, head, body, null, HttpStatus.OK);
+    public ResponseEntity<TaskResponse> setTaskPerformer(@PathVariable(name = "taskId") Long taskId,
+                                                         @Parameter(hidden = true)
+                                                         @AuthenticationPrincipal UserDetails user,
+                                                         @Parameter(description = "ETag of the task, if the task was changed the request fails.")
+                                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                         @RequestBody Map<String, String> body) {
+        body.put("author", user.getUsername());
+        return getTaskResponse(taskService.setTaskPerformer(taskId, ifMatch, body), HttpStatus.OK);
+    }
+
+    @Operation(
+            summary = "Update a status of many tasks.",
+            description = "Allows the user to update a status of all tasks which match the ids and(or) the filters " +
+                    "and where the user is an author or a performer. Other tasks are not changed.",
+            parameters = {
+                    @Parameter(
+                            name = "ids",
+                            description = "Comma separated ids of tasks.",
+                            schema = @Schema(implementation = String.class)
+                    ),
+                    @Parameter(
+                            name = "author",
+                            description = "Author of a task(ME as shortcut for your email).",
+                            schema = @Schema(implementation = String.class)
+                    ),
+                    @Parameter(
+                            name = "performer",
+                            description = "Performer  of a task(ME as shortcut for your email).",
+                            schema = @Schema(implementation = String.class)
+                    ),
+                    @Parameter(
+                            name = "status",
+                            description = "Task status.",
+                            schema = @Schema(implementation = Task.Status.class)
+                    ),
+                    @Parameter(
+                            name = "priority",
+                            description = "Task priority",
+                            schema = @Schema(implementation = Task.Priority.class)
+                    ),},
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "A new task status.",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = OpenAPIConfig.TaskUpdateStatusSchema.class)
+                    )
+            ),
+            responses = {
+                    @ApiResponse(
+                            description = "Updated tasks.",
+                            responseCode = "200",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = OpenAPIConfig.TasksSchema.class)
+                            )),
+                    @ApiResponse(
+                            description = "Incorrect data was provided.",
+                            responseCode = "400",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = OpenAPIConfig.ErrorSchema.class)
+                            )),
+                    @ApiResponse(
+                            description = "Unauthenticated access.",
+                            responseCode = "403"),
+                    @ApiResponse(
+                            description = "Unpredicted error.",
+                            responseCode = "500",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = OpenAPIConfig.ErrorSchema.class)
+                            )),
+            }
+    )
+    @Timed("task.controller")
+    @PutMapping("/tasks/batch/status")
+    public ResponseEntity<TasksResponse> setTasksStatus(@Parameter(hidden = true)
+                                                        @AuthenticationPrincipal UserDetails user,
+                                                        @Parameter(hidden = true)
+                                                        @RequestParam Map<String, String> queryParameters,
+                                                        @RequestBody Map<String, String> body) {
+        queryParameters.put("requester", user.getUsername());
+        return ResponseEntity.ok(taskService.setTasksStatus(queryParameters, body));
+    }
+
+    @Operation(
+            summary = "Update a performer of many tasks.",
+            description = "Allows the user to update a performer of all tasks which match the ids and(or) the filters " +
+                    "and where the user is an author. Other tasks are not changed.",
+            parameters = {
+                    @Parameter(
+                            name = "ids",
+                            description = "Comma separated ids of tasks.",
+                            schema = @Schema(implementation = String.class)
+                    ),
+                    @Parameter(
+                            name = "author",
+                            description = "Author of a task(ME as shortcut for your email).",
+                            schema = @Schema(implementation = String.class)
+                    ),
+                    @Parameter(
+                            name = "performer",
+                            description = "Performer  of a task(ME as shortcut for your email).",
+                            schema = @Schema(implementation = String.class)
+                    ),
+                    @Parameter(
+                            name = "status",
+                            description = "Task status.",
+                            schema = @Schema(implementation = Task.Status.class)
+                    ),
+                    @Parameter(
+                            name = "priority",
+                            description = "Task priority",
+                            schema = @Schema(implementation = Task.Priority.class)
+                    ),},
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "A new task performer.",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = OpenAPIConfig.TaskUpdatePerformerSchema.class)
+                    )
+            ),
+            responses = {
+                    @ApiResponse(
+                            description = "Updated tasks.",
+                            responseCode = "200",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = OpenAPIConfig.TasksSchema.class)
+                            )),
+                    @ApiResponse(
+                            description = "Incorrect data was provided.",
+                            responseCode = "400",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = OpenAPIConfig.ErrorSchema.class)
+                            )),
+                    @ApiResponse(
+                            description = "Unauthenticated access.",
+                            responseCode = "403"),
+                    @ApiResponse(
+                            description = "Unpredicted error.",
+                            responseCode = "500",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = OpenAPIConfig.ErrorSchema.class)
+                            )),
+            }
+    )
+    @Timed("task.controller")
+    @PutMapping("/tasks/batch/performer")
+    public ResponseEntity<TasksResponse> setTasksPerformer(@Parameter(hidden = true)
+                                                           @AuthenticationPrincipal UserDetails user,
+                                                           @Parameter(hidden = true)
+                                                           @RequestParam Map<String, String> queryParameters,
+                                                           @RequestBody Map<String, String> body) {
+        queryParameters.put("requester", user.getUsername());
+        return ResponseEntity.ok(taskService.setTasksPerformer(queryParameters, body));
     }
 
     @Operation(
@@ -389,6 +943,13 @@ public class TaskController {
                                     mediaType = "application/json",
                                     schema = @Schema(implementation = OpenAPIConfig.ErrorSchema.class)
                             )),
+                    @ApiResponse(
+                            description = "The task was changed, it doesn't match If-Match.",
+                            responseCode = "412",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = OpenAPIConfig.ErrorSchema.class)
+                            )),
                     @ApiResponse(
                             description = "Unpredicted error.",
                             responseCode = "500",
@@ -398,75 +959,37 @@ public class TaskController {
                             )),
             }
     )
+    @Timed("task.controller")
     @PutMapping("/tasks/{taskId}/comment")
-    public ResponseEntity<Map<String, Object>> addComment(@PathVariable(name = "taskId") Long taskId,
-                                                          @RequestHeader Map<String, String> head,
-                                                          @RequestBody Map<String, String> body) {
-        return getResponse("addComment", taskId, head, body, null, HttpStatus.CREATED);
+    public ResponseEntity<CommentResponse> addComment(@PathVariable(name = "taskId") Long taskId,
+                                                      @Parameter(hidden = true)
+                                                      @AuthenticationPrincipal UserDetails user,
+                                                      @Parameter(description = "ETag of the task, if the task was changed the request fails.")
+                                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                      @RequestBody Map<String, String> body) {
+        body.put("author", user.getUsername());
+        return new ResponseEntity<>(taskService.addComment(taskId, ifMatch, body), HttpStatus.CREATED);
     }
 
-    private ResponseEntity<Map<String, Object>> getResponse(String request, Long taskId, Map<String, String> head,
-                                                            Map<String, String> body, Map<String, String> queryParameters,
-                                                            HttpStatus successCode) {
-        try {
-            Map<String, Object> result;
-            String jwt = "";
-            for (Map.Entry<String, String> entry : head.entrySet()) {
-                if (entry.getKey().equalsIgnoreCase("Authorization")) {
-                    jwt = entry.getValue().substring("Bearer ".length());
-                }
-            }
-            String email = jwtService.getSubject(jwt);
-            switch (request) {
-                case "addTask" -> {
-                    body.put("author", email);
-                    result = taskService.addTask(body);
-                }
-                case "updateTask" -> {
-                    body.put("author", email);
-                    result = taskService.updateTask(taskId, body);
-                }
-                case "getTasks" -> {
-                    queryParameters.put("requester", email);
-                    result = taskService.getTasks(queryParameters);
-                }
-                case "deleteTask" -> result = taskService.deleteTask(taskId, email);
-                case "setTaskStatus" -> {
-                    body.put("requester", email);
-                    result = taskService.setTaskStatus(taskId, body);
-                }
-                case "setTaskPerformer" -> {
-                    body.put("author", email);
-                    result = taskService.setTaskPerformer(taskId, body);
-                }
-                case "addComment" -> {
-                    body.put("author", email);
-                    result = taskService.addComment(taskId, body);
-                }
-                default -> result = Map.of();
-            }
-            return new ResponseEntity<>(result, successCode);
-        } catch (Exception e) {
-            HttpStatus errorHttpStatus = HttpStatus.INTERNAL_SERVER_ERROR;
-            String errorMessage;
-            if (e.getMessage() != null && e.getMessage().startsWith("ERROR")) {
-                errorMessage = e.getMessage();
-                try {
-                    String prefix = "ERROR[";
-                    HttpStatus parsedCode = HttpStatus.resolve(
-                            Integer.parseInt(e.getMessage().substring(prefix.length(), prefix.length() + 3)));
-                    if (parsedCode != null) {
-                        errorHttpStatus = parsedCode;
-                    }
-                } catch (Exception ex) {
-                    ex.printStackTrace();
-                }
-            } else {
-                errorMessage = String.format("ERROR[%d]: %s.", errorHttpStatus.value(), e.getClass().toString());
-                e.printStackTrace();
-            }
-            return new ResponseEntity<>(Map.of("error message", errorMessage), errorHttpStatus);
+    private ResponseEntity<TaskResponse> getTaskResponse(TaskResponse result, HttpStatus successCode) {
+        HttpHeaders headers = new HttpHeaders();
+        if (result.task().getVersion() != null) {
+            headers.setETag(getETag(result));
+        }
+        return new ResponseEntity<>(result, headers, successCode);
+    }
+
+    private <T> ResponseEntity<T> getVersionedResponse(VersionedResponse<T> result) {
+        if (result.body() == null) {
+            return null;
+        }
+        if (result.eTag() != null) {
+            return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
         }
+        return ResponseEntity.ok(result.body());
+    }
 
+    private String getETag(TaskResponse result) {
+        return String.format("\"%d\"", result.task().getVersion());
     }
 }
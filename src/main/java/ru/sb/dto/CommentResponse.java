@@ -0,0 +1,6 @@
+package ru.sb.dto;
+
+import ru.sb.model.Comment;
+
+public record CommentResponse(Comment comment) {
+}
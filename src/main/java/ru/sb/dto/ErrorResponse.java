@@ -0,0 +1,6 @@
+package ru.sb.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public record ErrorResponse(@JsonProperty("error message") String errorMessage) {
+}
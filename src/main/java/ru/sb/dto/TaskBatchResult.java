@@ -0,0 +1,9 @@
+package ru.sb.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import ru.sb.model.Task;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TaskBatchResult(int index, Task task, @JsonProperty("error message") String errorMessage) {
+}
@@ -0,0 +1,9 @@
+package ru.sb.dto;
+
+import ru.sb.model.Comment;
+import ru.sb.model.Task;
+
+import java.util.List;
+
+public record TaskCommentsResponse(Task task, List<Comment> comments) {
+}
@@ -0,0 +1,7 @@
+package ru.sb.dto;
+
+import java.util.List;
+
+public sealed interface TaskListResponse permits TasksResponse, TasksCursorResponse {
+    List<?> tasks();
+}
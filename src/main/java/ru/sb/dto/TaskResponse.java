@@ -0,0 +1,6 @@
+package ru.sb.dto;
+
+import ru.sb.model.Task;
+
+public record TaskResponse(Task task) {
+}
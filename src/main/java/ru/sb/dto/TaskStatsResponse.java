@@ -0,0 +1,9 @@
+package ru.sb.dto;
+
+import ru.sb.model.Task;
+
+import java.util.Map;
+
+public record TaskStatsResponse(Map<Task.Status, Map<Task.Priority, Long>> author,
+                                Map<Task.Status, Map<Task.Priority, Long>> performer) {
+}
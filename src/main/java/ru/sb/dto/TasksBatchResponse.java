@@ -0,0 +1,6 @@
+package ru.sb.dto;
+
+import java.util.List;
+
+public record TasksBatchResponse(List<TaskBatchResult> tasks, int created, int failed) {
+}
@@ -0,0 +1,6 @@
+package ru.sb.dto;
+
+import java.util.List;
+
+public record TasksCursorResponse(List<?> tasks, String next) implements TaskListResponse {
+}
@@ -0,0 +1,6 @@
+package ru.sb.dto;
+
+import java.util.List;
+
+public record TasksResponse(List<?> tasks, long total) implements TaskListResponse {
+}
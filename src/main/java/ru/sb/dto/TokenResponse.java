@@ -0,0 +1,4 @@
+package ru.sb.dto;
+
+public record TokenResponse(String token) {
+}
@@ -0,0 +1,7 @@
+package ru.sb.dto;
+
+/**
+ * A response with the ETag it was read with, the body is null when the ETag matched If-None-Match.
+ */
+public record VersionedResponse<T>(String eTag, T body) {
+}
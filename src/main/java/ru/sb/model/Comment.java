@@ -1,12 +1,16 @@
 package ru.sb.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 
 @Entity
 @Table(name = "comments")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Comment {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,19 @@
+package ru.sb.model;
+
+public class CommentMutation {
+    private final TaskMutation.Result result;
+    private final Comment comment;
+
+    public CommentMutation(TaskMutation.Result result, Comment comment) {
+        this.result = result;
+        this.comment = comment;
+    }
+
+    public TaskMutation.Result getResult() {
+        return result;
+    }
+
+    public Comment getComment() {
+        return comment;
+    }
+}
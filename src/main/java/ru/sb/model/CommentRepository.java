@@ -1,9 +1,13 @@
 package ru.sb.model;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
-public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findAllByTaskId(Long taskId);
+public interface CommentRepository extends JpaRepository<Comment, Long>, CommentRepositoryCustom {
+    @Query(value = "SELECT * FROM comments WHERE task_id = ANY(:taskIds) ORDER BY task_id, timestamp, id",
+            nativeQuery = true)
+    List<Comment> findAllByTaskIdIn(@Param("taskIds") Long[] taskIds);
 }
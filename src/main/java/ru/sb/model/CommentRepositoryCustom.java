@@ -0,0 +1,14 @@
+package ru.sb.model;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface CommentRepositoryCustom {
+    CommentMutation addComment(Long taskId, Long version, String author, String text);
+
+    /**
+     * Reads the comments of the tasks as plain rows, the returned comments aren't managed by the persistence
+     * context and aren't put in the second-level cache.
+     */
+    List<Comment> findRowsByTaskIds(Collection<Long> taskIds);
+}
@@ -0,0 +1,65 @@
+package ru.sb.model;
+
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class CommentRepositoryCustomImpl implements CommentRepositoryCustom {
+    private final DataSource dataSource;
+    // The task row is locked(FOR SHARE), so a concurrent change of the task is waited for and the version is
+    // checked against the committed row, not against the snapshot of the statement.
+    private static final String INSERT_COMMENT = "WITH inserted AS (INSERT INTO comments (task_id, author, text) " +
+            "SELECT id, :author, :text FROM tasks WHERE id = :id%s FOR SHARE " +
+            "RETURNING id, task_id, author, text, timestamp) " +
+            "SELECT EXISTS(SELECT 1 FROM tasks WHERE id = :id) AS found, inserted.* " +
+            "FROM (VALUES (1)) AS request LEFT JOIN inserted ON true";
+    private static final String SELECT_COMMENTS = "SELECT id, task_id, author, text, timestamp FROM comments " +
+            "WHERE task_id = ANY(CAST(:taskIds AS BIGINT[])) ORDER BY task_id, timestamp, id";
+    private static final RowMapper<Comment> COMMENT_ROW_MAPPER = (rs, rowNum) -> new Comment(
+            rs.getLong("id"),
+            rs.getLong("task_id"),
+            rs.getString("author"),
+            rs.getString("text"),
+            rs.getString("timestamp"));
+
+    public CommentRepositoryCustomImpl(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public CommentMutation addComment(Long taskId, Long version, String author, String text) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("id", taskId)
+                .addValue("author", author)
+                .addValue("text", text);
+        String versionCondition = "";
+        if (version != null) {
+            versionCondition = " AND version = :version";
+            parameters.addValue("version", version);
+        }
+        return new NamedParameterJdbcTemplate(dataSource).queryForObject(
+                String.format(INSERT_COMMENT, versionCondition), parameters, (rs, rowNum) -> {
+                    if (rs.getObject("id") != null) {
+                        return new CommentMutation(TaskMutation.Result.DONE, COMMENT_ROW_MAPPER.mapRow(rs, rowNum));
+                    }
+                    // Without a version the row is missed only when the task was deleted after the snapshot.
+                    if (!rs.getBoolean("found") || version == null) {
+                        return new CommentMutation(TaskMutation.Result.NOT_FOUND, null);
+                    }
+                    return new CommentMutation(TaskMutation.Result.PRECONDITION_FAILED, null);
+                });
+    }
+
+    @Override
+    public List<Comment> findRowsByTaskIds(Collection<Long> taskIds) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource("taskIds", taskIds.stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(",", "{", "}")));
+        return new NamedParameterJdbcTemplate(dataSource).query(SELECT_COMMENTS, parameters, COMMENT_ROW_MAPPER);
+    }
+}
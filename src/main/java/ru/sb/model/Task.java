@@ -1,9 +1,14 @@
 package ru.sb.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "tasks")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Task {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -16,6 +21,9 @@ public class Task {
     private Priority priority = Priority.LOW;
     private String author;
     private String performer;
+    @Version
+    @JsonIgnore
+    private Long version;
 
     public Task() {
     }
@@ -87,6 +95,14 @@ public class Task {
         this.performer = performer;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
    public enum Status {
         PENDING,
         IN_PROCESS,
@@ -0,0 +1,31 @@
+package ru.sb.model;
+
+public class TaskCount {
+    private final boolean author;
+    private final Task.Status status;
+    private final Task.Priority priority;
+    private final long count;
+
+    public TaskCount(boolean author, Task.Status status, Task.Priority priority, long count) {
+        this.author = author;
+        this.status = status;
+        this.priority = priority;
+        this.count = count;
+    }
+
+    public boolean isAuthor() {
+        return author;
+    }
+
+    public Task.Status getStatus() {
+        return status;
+    }
+
+    public Task.Priority getPriority() {
+        return priority;
+    }
+
+    public long getCount() {
+        return count;
+    }
+}
@@ -0,0 +1,90 @@
+package ru.sb.model;
+
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TaskFilter {
+    private final String author;
+    private final String performer;
+    private final Task.Status status;
+    private final Task.Priority priority;
+
+    public TaskFilter(String author, String performer, Task.Status status, Task.Priority priority) {
+        this.author = author;
+        this.performer = performer;
+        this.status = status;
+        this.priority = priority;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public String getPerformer() {
+        return performer;
+    }
+
+    public Task.Status getStatus() {
+        return status;
+    }
+
+    public Task.Priority getPriority() {
+        return priority;
+    }
+
+    public Specification<Task> toSpecification() {
+        List<Criterion> criteria = getCriteria();
+        return (root, query, builder) -> builder.and(criteria.stream()
+                .map(criterion -> criterion.value() == null
+                        ? builder.isNull(root.get(criterion.column()))
+                        : builder.equal(root.get(criterion.column()), criterion.value()))
+                .toArray(Predicate[]::new));
+    }
+
+    /**
+     * The same conditions as toSpecification() for JDBC queries, their values are added to the parameters
+     * under the column names.
+     */
+    public List<String> toSqlConditions(MapSqlParameterSource parameters) {
+        List<String> conditions = new ArrayList<>();
+        for (Criterion criterion : getCriteria()) {
+            String column = criterion.column();
+            if (criterion.value() == null) {
+                conditions.add(column + " IS NULL");
+            } else if (criterion.value() instanceof Enum<?> value) {
+                conditions.add(String.format("%1$s = CAST(:%1$s AS %2$s)", column, column.toUpperCase()));
+                parameters.addValue(column, value.name());
+            } else {
+                conditions.add(String.format("%1$s = :%1$s", column));
+                parameters.addValue(column, criterion.value());
+            }
+        }
+        return conditions;
+    }
+
+    private List<Criterion> getCriteria() {
+        List<Criterion> criteria = new ArrayList<>();
+        if (author != null && !author.isEmpty()) {
+            criteria.add(new Criterion("author", author));
+        }
+        if (performer == null) {
+            criteria.add(new Criterion("performer", null));
+        } else if (!performer.isEmpty()) {
+            criteria.add(new Criterion("performer", performer));
+        }
+        if (status != null) {
+            criteria.add(new Criterion("status", status));
+        }
+        if (priority != null) {
+            criteria.add(new Criterion("priority", priority));
+        }
+        return criteria;
+    }
+
+    private record Criterion(String column, Object value) {
+    }
+}
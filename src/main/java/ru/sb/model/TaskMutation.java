@@ -0,0 +1,27 @@
+package ru.sb.model;
+
+public class TaskMutation {
+    private final Result result;
+    private final Task task;
+
+    public TaskMutation(Result result, Task task) {
+        this.result = result;
+        this.task = task;
+    }
+
+    public Result getResult() {
+        return result;
+    }
+
+    public Task getTask() {
+        return task;
+    }
+
+    public enum Result {
+        DONE,
+        NOT_FOUND,
+        FORBIDDEN,
+        PRECONDITION_FAILED,
+        CONFLICT
+    }
+}
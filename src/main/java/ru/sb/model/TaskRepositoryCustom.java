@@ -0,0 +1,32 @@
+package ru.sb.model;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface TaskRepositoryCustom {
+    void streamAll(TaskFilter filter, int fetchSize, Consumer<Task> consumer);
+
+    void insertAll(List<Task> tasks, int batchSize);
+
+    List<Task> updateStatus(TaskFilter filter, List<Long> ids, String requester, Task.Status status);
+
+    List<Task> updatePerformer(TaskFilter filter, List<Long> ids, String author, String performer);
+
+    TaskMutation updateTask(Long taskId, Long version, String author, Task values, Collection<String> fields);
+
+    TaskMutation updateTaskStatus(Long taskId, Long version, String requester, Task.Status status);
+
+    TaskMutation updateTaskPerformer(Long taskId, Long version, String author, String performer);
+
+    TaskMutation deleteTask(Long taskId, Long version, String author);
+
+    long findTasksVersion(String email);
+
+    Page<Task> search(TaskFilter filter, String query, Pageable pageable);
+
+    List<TaskCount> countTasks(String email);
+}
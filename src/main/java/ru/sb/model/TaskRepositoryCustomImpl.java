@@ -0,0 +1,309 @@
+package ru.sb.model;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+    private final DataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+    private static final String COLUMNS = "id, title, description, status, priority, author, performer, version";
+    // One statement per chunk, so the statement-level triggers of tasks run once per chunk and not once per row.
+    // The rows are inserted in the order of the chunk, so the generated ids ascend in that order.
+    private static final String INSERT_TASKS = "INSERT INTO tasks (title, description, status, priority, author, performer) " +
+            "SELECT title, description, CAST(status AS STATUS), CAST(priority AS PRIORITY), author, performer " +
+            "FROM unnest(CAST(? AS VARCHAR[]), CAST(? AS VARCHAR[]), CAST(? AS VARCHAR[]), CAST(? AS VARCHAR[]), " +
+            "CAST(? AS VARCHAR[]), CAST(? AS VARCHAR[])) WITH ORDINALITY " +
+            "AS batch(title, description, status, priority, author, performer, position) ORDER BY position RETURNING id";
+    private static final RowMapper<Task> TASK_ROW_MAPPER = (rs, rowNum) -> {
+        Task task = new Task(
+                rs.getLong("id"),
+                rs.getString("title"),
+                rs.getString("description"),
+                Task.Status.valueOf(rs.getString("status")),
+                Task.Priority.valueOf(rs.getString("priority")),
+                rs.getString("author"),
+                rs.getString("performer"));
+        task.setVersion(rs.getLong("version"));
+        return task;
+    };
+
+    private static final Map<String, String> ASSIGNMENTS = Map.of(
+            "title", "title = :title",
+            "description", "description = :description",
+            "status", "status = CAST(:status AS STATUS)",
+            "priority", "priority = CAST(:priority AS PRIORITY)",
+            "performer", "performer = :performer");
+    private static final String MUTATION = "WITH changed AS (%1$s WHERE id = :id AND %2$s%3$s RETURNING " + COLUMNS + ") " +
+            "SELECT EXISTS(SELECT 1 FROM tasks WHERE id = :id) AS found, " +
+            "EXISTS(SELECT 1 FROM tasks WHERE id = :id AND %2$s) AS permitted%4$s, changed.* " +
+            "FROM (VALUES (1)) AS request LEFT JOIN changed ON true";
+    private static final RowMapper<TaskMutation> MUTATION_ROW_MAPPER = (rs, rowNum) -> {
+        if (rs.getObject("id") != null) {
+            return new TaskMutation(TaskMutation.Result.DONE, TASK_ROW_MAPPER.mapRow(rs, rowNum));
+        }
+        if (!rs.getBoolean("found")) {
+            return new TaskMutation(TaskMutation.Result.NOT_FOUND, null);
+        }
+        if (!rs.getBoolean("permitted")) {
+            return new TaskMutation(TaskMutation.Result.FORBIDDEN, null);
+        }
+        // Found and permitted in the snapshot of the statement, but the row didn't match when it was changed.
+        return new TaskMutation(TaskMutation.Result.CONFLICT, null);
+    };
+    // The same expression as the GIN index of V7, the planner uses the index only for this expression.
+    private static final String SEARCH_VECTOR = "(setweight(to_tsvector('english', title), 'A') || " +
+            "setweight(to_tsvector('english', description), 'B'))";
+    // Every match is ranked before the page is cut, so the page holds the best matches of the whole set. The
+    // matches are computed once(the CTE is referenced twice and materialized) and the total comes with an empty
+    // page too.
+    private static final String SEARCH = "WITH matches AS (SELECT " + COLUMNS + ", ts_rank(" + SEARCH_VECTOR +
+            ", query) AS rank FROM tasks, websearch_to_tsquery('english', :query) AS query " +
+            "WHERE " + SEARCH_VECTOR + " @@ query%s) " +
+            "SELECT (SELECT COUNT(*) FROM matches) AS total, page.* FROM (VALUES (1)) AS request " +
+            "LEFT JOIN (SELECT * FROM matches ORDER BY rank DESC, id LIMIT :limit OFFSET :offset) AS page ON true " +
+            "ORDER BY page.rank DESC, page.id";
+    private static final String COUNT_TASKS = "SELECT true AS as_author, status, priority, COUNT(*) AS count FROM tasks " +
+            "WHERE author = ? GROUP BY status, priority UNION ALL " +
+            "SELECT false, status, priority, COUNT(*) FROM tasks WHERE performer = ? GROUP BY status, priority";
+    // Comments are deleted with their task by the foreign key(ON DELETE CASCADE), the statement reads their ids
+    // from its snapshot to evict them from the second-level cache.
+    private static final String COMMENT_IDS = ", ARRAY(SELECT id FROM comments WHERE task_id = :id) AS comment_ids";
+    private static final int MAX_MUTATION_ATTEMPTS = 3;
+    private static final String AUTHOR_PERMISSION = "author = :requester";
+    private static final String AUTHOR_OR_PERFORMER_PERMISSION = "(author = :requester OR performer = :requester)";
+
+    public TaskRepositoryCustomImpl(DataSource dataSource, EntityManagerFactory entityManagerFactory) {
+        this.dataSource = dataSource;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public void streamAll(TaskFilter filter, int fetchSize, Consumer<Task> consumer) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(fetchSize);
+        MapSqlParameterSource parameters = new MapSqlParameterSource();
+        String sql = String.format("SELECT %s FROM tasks%s ORDER BY id", COLUMNS,
+                getWhereClause(filter.toSqlConditions(parameters)));
+        new NamedParameterJdbcTemplate(jdbcTemplate).query(sql, parameters,
+                (RowCallbackHandler) rs -> consumer.accept(TASK_ROW_MAPPER.mapRow(rs, rs.getRow())));
+    }
+
+    @Override
+    public void insertAll(List<Task> tasks, int batchSize) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        for (int from = 0; from < tasks.size(); from += batchSize) {
+            List<Task> batch = tasks.subList(from, Math.min(from + batchSize, tasks.size()));
+            List<Long> ids = jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(INSERT_TASKS);
+                ps.setArray(1, getColumnArray(connection, batch, Task::getTitle));
+                ps.setArray(2, getColumnArray(connection, batch, Task::getDescription));
+                ps.setArray(3, getColumnArray(connection, batch, task -> task.getStatus().name()));
+                ps.setArray(4, getColumnArray(connection, batch, task -> task.getPriority().name()));
+                ps.setArray(5, getColumnArray(connection, batch, Task::getAuthor));
+                ps.setArray(6, getColumnArray(connection, batch, Task::getPerformer));
+                return ps;
+            }, (rs, rowNum) -> rs.getLong("id"));
+            ids.sort(null);
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).setId(ids.get(i));
+                batch.get(i).setVersion(0L);
+            }
+        }
+    }
+
+    @Override
+    public List<Task> updateStatus(TaskFilter filter, List<Long> ids, String requester, Task.Status status) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource();
+        List<String> conditions = getConditions(filter, ids, parameters);
+        conditions.add(AUTHOR_OR_PERFORMER_PERMISSION);
+        parameters.addValue("requester", requester);
+        parameters.addValue("newStatus", status.name());
+        String sql = String.format("UPDATE tasks SET status = CAST(:newStatus AS STATUS), version = version + 1%s RETURNING %s",
+                getWhereClause(conditions), COLUMNS);
+        List<Task> tasks = new NamedParameterJdbcTemplate(dataSource).query(sql, parameters, TASK_ROW_MAPPER);
+        evictTasks(tasks);
+        return tasks;
+    }
+
+    @Override
+    public List<Task> updatePerformer(TaskFilter filter, List<Long> ids, String author, String performer) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource();
+        List<String> conditions = getConditions(filter, ids, parameters);
+        conditions.add(AUTHOR_PERMISSION);
+        parameters.addValue("requester", author);
+        parameters.addValue("newPerformer", performer);
+        String sql = String.format("UPDATE tasks SET performer = :newPerformer, version = version + 1%s RETURNING %s",
+                getWhereClause(conditions), COLUMNS);
+        List<Task> tasks = new NamedParameterJdbcTemplate(dataSource).query(sql, parameters, TASK_ROW_MAPPER);
+        evictTasks(tasks);
+        return tasks;
+    }
+
+    @Override
+    public TaskMutation updateTask(Long taskId, Long version, String author, Task values, Collection<String> fields) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource();
+        List<String> assignments = new ArrayList<>();
+        for (String field : fields) {
+            switch (field) {
+                case "title" -> parameters.addValue(field, values.getTitle());
+                case "description" -> parameters.addValue(field, values.getDescription());
+                case "status" -> parameters.addValue(field, values.getStatus().name());
+                case "priority" -> parameters.addValue(field, values.getPriority().name());
+                case "performer" -> parameters.addValue(field, values.getPerformer());
+                default -> throw new IllegalArgumentException(String.format("ERROR[500]: Field(%s) is unknown.", field));
+            }
+            assignments.add(ASSIGNMENTS.get(field));
+        }
+        assignments.add("version = version + 1");
+        parameters.addValue("requester", author);
+        return mutate("UPDATE tasks SET " + String.join(", ", assignments), AUTHOR_PERMISSION, "",
+                taskId, version, parameters, MUTATION_ROW_MAPPER);
+    }
+
+    @Override
+    public TaskMutation updateTaskStatus(Long taskId, Long version, String requester, Task.Status status) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("requester", requester)
+                .addValue("status", status.name());
+        return mutate("UPDATE tasks SET status = CAST(:status AS STATUS), version = version + 1",
+                AUTHOR_OR_PERFORMER_PERMISSION, "", taskId, version, parameters, MUTATION_ROW_MAPPER);
+    }
+
+    @Override
+    public TaskMutation updateTaskPerformer(Long taskId, Long version, String author, String performer) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("requester", author)
+                .addValue("performer", performer);
+        return mutate("UPDATE tasks SET performer = :performer, version = version + 1",
+                AUTHOR_PERMISSION, "", taskId, version, parameters, MUTATION_ROW_MAPPER);
+    }
+
+    @Override
+    public TaskMutation deleteTask(Long taskId, Long version, String author) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("requester", author);
+        List<Long> commentIds = new ArrayList<>();
+        TaskMutation mutation = mutate("DELETE FROM tasks", AUTHOR_PERMISSION, COMMENT_IDS, taskId, version, parameters,
+                (rs, rowNum) -> {
+                    commentIds.clear();
+                    commentIds.addAll(Arrays.asList((Long[]) rs.getArray("comment_ids").getArray()));
+                    return MUTATION_ROW_MAPPER.mapRow(rs, rowNum);
+                });
+        if (mutation.getResult() == TaskMutation.Result.DONE) {
+            Cache cache = entityManagerFactory.getCache();
+            commentIds.forEach(id -> cache.evict(Comment.class, id));
+        }
+        return mutation;
+    }
+
+    @Override
+    public long findTasksVersion(String email) {
+        Long version = new JdbcTemplate(dataSource).queryForObject(
+                "SELECT COALESCE((SELECT version FROM task_versions WHERE email = ?), 0)", Long.class, email);
+        return version == null ? 0 : version;
+    }
+
+    @Override
+    public Page<Task> search(TaskFilter filter, String query, Pageable pageable) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("query", query)
+                .addValue("limit", pageable.getPageSize())
+                .addValue("offset", pageable.getOffset());
+        String conditions = filter.toSqlConditions(parameters).stream()
+                .map(condition -> " AND " + condition)
+                .collect(Collectors.joining());
+        long[] total = {0};
+        List<Task> tasks = new ArrayList<>();
+        new NamedParameterJdbcTemplate(dataSource).query(String.format(SEARCH, conditions), parameters,
+                (RowCallbackHandler) rs -> {
+                    total[0] = rs.getLong("total");
+                    if (rs.getObject("id") != null) {
+                        tasks.add(TASK_ROW_MAPPER.mapRow(rs, rs.getRow()));
+                    }
+                });
+        return new PageImpl<>(tasks, pageable, total[0]);
+    }
+
+    @Override
+    public List<TaskCount> countTasks(String email) {
+        return new JdbcTemplate(dataSource).query(COUNT_TASKS, (rs, rowNum) -> new TaskCount(
+                rs.getBoolean("as_author"),
+                Task.Status.valueOf(rs.getString("status")),
+                Task.Priority.valueOf(rs.getString("priority")),
+                rs.getLong("count")), email, email);
+    }
+
+    private TaskMutation mutate(String statement, String permission, String columns, Long taskId, Long version,
+                                MapSqlParameterSource parameters, RowMapper<TaskMutation> rowMapper) {
+        parameters.addValue("id", taskId);
+        String versionCondition = "";
+        if (version != null) {
+            versionCondition = " AND version = :version";
+            parameters.addValue("version", version);
+        }
+        NamedParameterJdbcTemplate jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        String sql = String.format(MUTATION, statement, permission, versionCondition, columns);
+        TaskMutation mutation = jdbcTemplate.queryForObject(sql, parameters, rowMapper);
+        if (mutation != null && mutation.getResult() == TaskMutation.Result.CONFLICT) {
+            if (version != null) {
+                return new TaskMutation(TaskMutation.Result.PRECONDITION_FAILED, null);
+            }
+            // Without a version the row is missed only when a concurrent transaction deleted it or changed its
+            // author or performer, the snapshot of the next statement sees that change and tells which one.
+            for (int attempt = 1; attempt < MAX_MUTATION_ATTEMPTS
+                    && mutation.getResult() == TaskMutation.Result.CONFLICT; attempt++) {
+                mutation = jdbcTemplate.queryForObject(sql, parameters, rowMapper);
+            }
+        }
+        if (mutation != null && mutation.getResult() == TaskMutation.Result.DONE) {
+            entityManagerFactory.getCache().evict(Task.class, taskId);
+        }
+        return mutation;
+    }
+
+    private Array getColumnArray(Connection connection, List<Task> batch, Function<Task, String> column)
+            throws SQLException {
+        return connection.createArrayOf("varchar", batch.stream().map(column).toArray());
+    }
+
+    private void evictTasks(List<Task> tasks) {
+        Cache cache = entityManagerFactory.getCache();
+        tasks.forEach(task -> cache.evict(Task.class, task.getId()));
+    }
+
+    private List<String> getConditions(TaskFilter filter, List<Long> ids, MapSqlParameterSource parameters) {
+        List<String> conditions = filter.toSqlConditions(parameters);
+        if (ids != null) {
+            conditions.add("id = ANY(CAST(:ids AS BIGINT[]))");
+            parameters.addValue("ids", ids.stream().map(String::valueOf)
+                    .collect(Collectors.joining(",", "{", "}")));
+        }
+        return conditions;
+    }
+
+    private String getWhereClause(List<String> conditions) {
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+}
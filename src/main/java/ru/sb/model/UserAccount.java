@@ -0,0 +1,19 @@
+package ru.sb.model;
+
+public final class UserAccount {
+    private final String email;
+    private final boolean enabled;
+
+    public UserAccount(String email, boolean enabled) {
+        this.email = email;
+        this.enabled = enabled;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+}
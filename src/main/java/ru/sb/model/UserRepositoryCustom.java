@@ -0,0 +1,5 @@
+package ru.sb.model;
+
+public interface UserRepositoryCustom {
+    User findUserByEmail(String email);
+}
@@ -0,0 +1,17 @@
+package ru.sb.model;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public User findUserByEmail(String email) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(User.class).load(email);
+    }
+}
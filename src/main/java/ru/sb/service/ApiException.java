@@ -0,0 +1,20 @@
+package ru.sb.service;
+
+import org.springframework.http.HttpStatus;
+
+public class ApiException extends RuntimeException {
+    private final HttpStatus status;
+
+    public ApiException(HttpStatus status, String message) {
+        super(String.format("ERROR[%d]: %s", status.value(), message), null, false, false);
+        this.status = status;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    public static ApiException badRequest(String format, Object... args) {
+        return new ApiException(HttpStatus.BAD_REQUEST, String.format(format, args));
+    }
+}
@@ -1,12 +1,16 @@
 package ru.sb.service;
 
 import ru.sb.model.Comment;
+import ru.sb.model.CommentMutation;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
 public interface CommentService {
-    List<Comment> findAllByTaskId(Long taskId);
+    Map<Long, List<Comment>> findAllByTaskIds(Collection<Long> taskIds);
 
-    Map<String, Object> addComment(Long taskId, String author, String text);
+    Map<Long, List<Comment>> findRowsByTaskIds(Collection<Long> taskIds);
+
+    CommentMutation addComment(Long taskId, Long version, String author, String text);
 }
@@ -1,34 +1,49 @@
 package ru.sb.service;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.sb.model.Comment;
+import ru.sb.model.CommentMutation;
 import ru.sb.model.CommentRepository;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 public class CommentServiceImpl implements CommentService {
     private CommentRepository commentRepository;
-    private static final int MAX_COMMENT_LENGTH = 300;
 
     public CommentServiceImpl(CommentRepository commentRepository) {
         this.commentRepository = commentRepository;
     }
 
     @Override
-    public List<Comment> findAllByTaskId(Long taskId) {
-        return commentRepository.findAllByTaskId(taskId);
+    @Transactional(readOnly = true)
+    public Map<Long, List<Comment>> findAllByTaskIds(Collection<Long> taskIds) {
+        if (taskIds.isEmpty()) {
+            return Map.of();
+        }
+        return groupByTask(commentRepository.findAllByTaskIdIn(taskIds.toArray(new Long[0])));
     }
 
     @Override
-    public Map<String, Object> addComment(Long taskId, String author, String text) {
-        if (text == null) {
-            throw new NullPointerException("ERROR[400]: Comment text can't be null.");
-        } else if (text.length() > MAX_COMMENT_LENGTH) {
-            throw new IllegalArgumentException(String.format("ERROR[400]: Comment text exceeds max length(%d > %d).",
-                    text.length(), MAX_COMMENT_LENGTH));
+    public Map<Long, List<Comment>> findRowsByTaskIds(Collection<Long> taskIds) {
+        if (taskIds.isEmpty()) {
+            return Map.of();
         }
-        return Map.of("comment", commentRepository.save(new Comment(taskId, author, text)));
+        return groupByTask(commentRepository.findRowsByTaskIds(taskIds));
+    }
+
+    @Override
+    public CommentMutation addComment(Long taskId, Long version, String author, String text) {
+        return commentRepository.addComment(taskId, version, author, text);
+    }
+
+    private Map<Long, List<Comment>> groupByTask(List<Comment> comments) {
+        return comments.stream()
+                .collect(Collectors.groupingBy(Comment::getTaskId, LinkedHashMap::new, Collectors.toList()));
     }
 }
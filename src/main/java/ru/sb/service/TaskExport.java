@@ -0,0 +1,8 @@
+package ru.sb.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface TaskExport {
+    void writeTo(OutputStream outputStream) throws IOException;
+}
@@ -1,19 +1,47 @@
 package ru.sb.service;
 
+import ru.sb.dto.CommentResponse;
+import ru.sb.dto.TaskListResponse;
+import ru.sb.dto.TaskResponse;
+import ru.sb.dto.TaskStatsResponse;
+import ru.sb.dto.TasksBatchResponse;
+import ru.sb.dto.TasksResponse;
+import ru.sb.dto.VersionedResponse;
+
+import java.util.List;
 import java.util.Map;
+import java.util.function.Predicate;
 
 public interface TaskService {
-    Map<String, Object> addTask(Map<String, String> fields);
+    TaskResponse addTask(Map<String, String> fields);
 
-    Map<String, Object> updateTask(Long taskId, Map<String, String> fields);
+    TasksBatchResponse addTasks(List<Map<String, String>> tasks);
 
-    Map<String, Object> getTasks(Map<String, String> filters);
+    TaskResponse getTask(Long taskId);
 
-    Map<String, Object> deleteTask(Long taskId, String requester);
+    TaskResponse updateTask(Long taskId, String ifMatch, Map<String, String> fields);
 
-    Map<String, Object> setTaskStatus(Long taskId, Map<String, String> fields);
+    TaskListResponse getTasks(Map<String, String> filters);
 
-    Map<String, Object> setTaskPerformer(Long taskId, Map<String, String> fields);
+    VersionedResponse<TaskListResponse> getTasks(Map<String, String> filters, Predicate<String> notModified);
 
-    Map<String, Object> addComment(Long taskId, Map<String, String> fields);
+    TasksResponse searchTasks(Map<String, String> filters);
+
+    VersionedResponse<TasksResponse> searchTasks(Map<String, String> filters, Predicate<String> notModified);
+
+    TaskStatsResponse getTaskStats(String requester);
+
+    TaskExport exportTasks(Map<String, String> filters);
+
+    TaskResponse deleteTask(Long taskId, String ifMatch, Map<String, String> fields);
+
+    TaskResponse setTaskStatus(Long taskId, String ifMatch, Map<String, String> fields);
+
+    TaskResponse setTaskPerformer(Long taskId, String ifMatch, Map<String, String> fields);
+
+    TasksResponse setTasksStatus(Map<String, String> filters, Map<String, String> fields);
+
+    TasksResponse setTasksPerformer(Map<String, String> filters, Map<String, String> fields);
+
+    CommentResponse addComment(Long taskId, String ifMatch, Map<String, String> fields);
 }
@@ -1,287 +1,477 @@
 package ru.sb.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.sb.dto.CommentResponse;
+import ru.sb.dto.TaskBatchResult;
+import ru.sb.dto.TaskCommentsResponse;
+import ru.sb.dto.TaskListResponse;
+import ru.sb.dto.TaskResponse;
+import ru.sb.dto.TaskStatsResponse;
+import ru.sb.dto.TasksBatchResponse;
+import ru.sb.dto.TasksCursorResponse;
+import ru.sb.dto.TasksResponse;
+import ru.sb.dto.VersionedResponse;
+import ru.sb.model.Comment;
+import ru.sb.model.CommentMutation;
 import ru.sb.model.Task;
+import ru.sb.model.TaskCount;
+import ru.sb.model.TaskFilter;
+import ru.sb.model.TaskMutation;
 import ru.sb.model.TaskRepository;
 
-import java.util.Arrays;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
-import java.util.NoSuchElementException;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static ru.sb.service.TaskValidation.*;
 
 @Service
 public class TaskServiceImpl implements TaskService {
     private TaskRepository taskRepository;
     private UserService userService;
     private CommentService commentService;
-    private static final int MAX_TITLE_LENGTH = 50;
-    private static final int MAX_DESCRIPTION_LENGTH = 300;
-    private static final int MAX_EMAIL_LENGTH = 30;
+    private TransactionTemplate transactionTemplate;
+    private TransactionTemplate batchTransactionTemplate;
+    private ObjectMapper objectMapper;
+    private DistributionSummary scannedRows;
+    private DistributionSummary returnedRows;
+    private static final int MAX_SEARCH_QUERY_LENGTH = 300;
+    private static final Sort TASK_ORDER = Sort.by("id");
+    private static final int EXPORT_FETCH_SIZE = 500;
+    private static final int INSERT_BATCH_SIZE = 1000;
+    private static final int MAX_TASKS_PER_BATCH = 100_000;
+    private static final List<String> UPDATABLE_FIELDS = List.of("title", "description", "status", "priority", "performer");
+    private static final String NOT_FOUND_ERROR = "A task(%d) not exists.";
+    private static final String AUTHOR_ERROR = "You are not an author of the task(%d).";
+    private static final String AUTHOR_OR_PERFORMER_ERROR = "You are not an author or a performer of the task(%d).";
+    private static final String PRECONDITION_ERROR = "The task(%d) was changed, it doesn't match If-Match.";
+    private static final String CONFLICT_ERROR = "The task(%d) is being changed concurrently, try again.";
+    private static final Pattern STRONG_ETAG = Pattern.compile("\"(\\d{1,18})\"");
+    private static final List<String> BULK_FILTERS = List.of("ids", "author", "performer", "status", "priority");
 
 
-    public TaskServiceImpl(TaskRepository taskRepository, UserService userService, CommentService commentService) {
+    public TaskServiceImpl(TaskRepository taskRepository, UserService userService, CommentService commentService,
+                           PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry) {
         this.taskRepository = taskRepository;
         this.userService = userService;
         this.commentService = commentService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.batchTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.scannedRows = DistributionSummary.builder("tasks.rows.scanned")
+                .description("Tasks matched by the filters of a task list request.")
+                .register(meterRegistry);
+        this.returnedRows = DistributionSummary.builder("tasks.rows.returned")
+                .description("Tasks returned by a task list request.")
+                .register(meterRegistry);
     }
 
     @Override
-    public Map<String, Object> addTask(Map<String, String> fields) {
-        Task task = new Task();
-        setTextField(task, fields, "author", MAX_EMAIL_LENGTH, false, true);
-        setTextField(task, fields, "title", MAX_TITLE_LENGTH, false, true);
-        setTextField(task, fields, "description", MAX_DESCRIPTION_LENGTH, false, true);
-        setEnumField(task, fields, "status", Task.Status.values(), false, false);
-        setEnumField(task, fields, "priority", Task.Priority.values(), false, false);
-        setTextField(task, fields, "performer", MAX_EMAIL_LENGTH, true, false);
-        return Map.of("task", taskRepository.save(task));
+    @Timed("task.service")
+    public TaskResponse addTask(Map<String, String> fields) {
+        return new TaskResponse(taskRepository.save(getNewTask(fields)));
     }
 
     @Override
-    public Map<String, Object> updateTask(Long taskId, Map<String, String> fields) {
-        Task task = getTask(taskId);
-        isAuthor(task, fields);
-        setTextField(task, fields, "title", MAX_TITLE_LENGTH, false, false);
-        setTextField(task, fields, "description", MAX_DESCRIPTION_LENGTH, false, false);
-        setEnumField(task, fields, "status", Task.Status.values(), false, false);
-        setEnumField(task, fields, "priority", Task.Priority.values(), false, false);
-        setTextField(task, fields, "performer", MAX_EMAIL_LENGTH, true, false);
-        return Map.of("task", taskRepository.save(task));
+    @Timed("task.service")
+    public TasksBatchResponse addTasks(List<Map<String, String>> tasks) {
+        if (tasks == null || tasks.isEmpty()) {
+            throw ApiException.badRequest("Tasks not found.");
+        }
+        if (tasks.size() > MAX_TASKS_PER_BATCH) {
+            throw ApiException.badRequest("Too many tasks(%d > %d).",
+                    tasks.size(), MAX_TASKS_PER_BATCH);
+        }
+        List<TaskBatchResult> results = new ArrayList<>(tasks.size());
+        List<Task> validTasks = new ArrayList<>(tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            try {
+                if (tasks.get(i) == null) {
+                    throw ApiException.badRequest("Task can not be null.");
+                }
+                Task task = getNewTask(tasks.get(i));
+                validTasks.add(task);
+                results.add(new TaskBatchResult(i, task, null));
+            } catch (ApiException e) {
+                results.add(new TaskBatchResult(i, null, e.getMessage()));
+            }
+        }
+        batchTransactionTemplate.executeWithoutResult(transactionStatus ->
+                taskRepository.insertAll(validTasks, INSERT_BATCH_SIZE));
+        return new TasksBatchResponse(results, validTasks.size(), tasks.size() - validTasks.size());
     }
 
     @Override
-    public Map<String, Object> getTasks(Map<String, String> filters) {
-        String author = getStringFilterValue(filters, "author");
-        String performer = getStringFilterValue(filters, "performer");
-        Task.Status status = (Task.Status) getEnumFilterValue(filters, "status");
-        Task.Priority priority = (Task.Priority) getEnumFilterValue(filters, "priority");
+    @Timed("task.service")
+    @Transactional(readOnly = true)
+    public TaskResponse getTask(Long taskId) {
+        return new TaskResponse(taskRepository.findById(taskId)
+                .orElseThrow(() -> new ApiException(HttpStatus.NOT_FOUND, String.format(NOT_FOUND_ERROR, taskId))));
+    }
+
+    @Override
+    @Timed("task.service")
+    public TaskResponse updateTask(Long taskId, String ifMatch, Map<String, String> fields) {
+        Task task = new Task();
+        setTextField(fields, "title", MAX_TITLE_LENGTH, false, false, task::setTitle);
+        setTextField(fields, "description", MAX_DESCRIPTION_LENGTH, false, false, task::setDescription);
+        setEnumField(fields, "status", Task.Status.class, false, false, task::setStatus);
+        setEnumField(fields, "priority", Task.Priority.class, false, false, task::setPriority);
+        setPerformerField(task, fields, false);
+        TaskMutation mutation = taskRepository.updateTask(taskId, getExpectedVersion(ifMatch), fields.get("author"), task,
+                UPDATABLE_FIELDS.stream().filter(fields::containsKey).toList());
+        return new TaskResponse(getMutatedTask(mutation, taskId, AUTHOR_ERROR));
+    }
+
+    @Override
+    @Timed("task.service")
+    @Transactional(readOnly = true)
+    public TaskListResponse getTasks(Map<String, String> filters) {
+        TaskFilter filter = getTaskFilter(filters);
         long offset = getLongFilterValue(filters, "offset");
         long limit = getLongFilterValue(filters, "limit");
         boolean comments = getBooleanFilterValue(filters, "comments");
-        if (offset > 0 && limit == 0) {
-            throw new IllegalArgumentException("ERROR[400]: For an offset value > 0 need to provide a limit value > 0.");
-        }
-        Stream<Task> taskStream = taskRepository.findAll().stream();
-        if (author != null && !author.equals("")) {
-            taskStream = taskStream.filter(task -> task.getAuthor().equals(author));
-        } else if (author == null) {
-            throw new IllegalArgumentException("ERROR[400]: Filter(author) can't be null.");
+        checkPage(offset, limit);
+        Specification<Task> specification = filter.toSpecification();
+        if (filters.containsKey("cursor")) {
+            return getTasksAfterCursor(specification, filters.get("cursor"), offset, limit, comments);
         }
-        if (!"".equals(performer)) {
-            taskStream = taskStream.filter(task -> {
-                if (task.getPerformer() == null) {
-                    return performer == null;
-                }
-                return task.getPerformer().equals(performer);
-            });
-        }
-        if (status != null) {
-            taskStream = taskStream.filter(task -> task.getStatus() == status);
+        List<Task> taskList;
+        long totalFilteredTask;
+        if (limit != 0) {
+            Page<Task> page = taskRepository.findAll(specification,
+                    PageRequest.of((int) Math.min(offset, Integer.MAX_VALUE), (int) Math.min(limit, Integer.MAX_VALUE), TASK_ORDER));
+            taskList = page.getContent();
+            totalFilteredTask = page.getTotalElements();
+        } else {
+            taskList = taskRepository.findAll(specification, TASK_ORDER);
+            totalFilteredTask = taskList.size();
         }
-        if (priority != null) {
-            taskStream = taskStream.filter(task -> task.getPriority() == priority);
+        checkSkipped(offset, limit, totalFilteredTask);
+        scannedRows.record(totalFilteredTask);
+        returnedRows.record(taskList.size());
+        return new TasksResponse(getTasksObject(taskList, comments), totalFilteredTask);
+    }
+
+    @Override
+    @Timed("task.service")
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public VersionedResponse<TaskListResponse> getTasks(Map<String, String> filters, Predicate<String> notModified) {
+        return getVersioned(filters, notModified, this::getTasks);
+    }
+
+    @Override
+    @Timed("task.service")
+    @Transactional(readOnly = true)
+    public TasksResponse searchTasks(Map<String, String> filters) {
+        String query = filters.get("q");
+        if (query == null || query.isBlank()) {
+            throw ApiException.badRequest("Filter(q) not found.");
         }
-        List<Task> taskList = taskStream.toList();
-        long totalFilteredTask = taskList.size();
-        taskStream = taskList.stream();
-        if (offset * limit >= totalFilteredTask && offset * limit > 0) {
-            throw new IllegalArgumentException(
-                    String.format("ERROR[400]: You wanted to skip %d, but after filtering there were only %d items left.",
-                            offset * limit, totalFilteredTask));
+        if (query.length() > MAX_SEARCH_QUERY_LENGTH) {
+            throw ApiException.badRequest("Filter(q) exceeds max length(%d > %d).",
+                    query.length(), MAX_SEARCH_QUERY_LENGTH);
         }
-        if (limit != 0) {
-            taskStream = taskStream.skip(offset * limit).limit(limit);
+        TaskFilter filter = getTaskFilter(filters);
+        long offset = getLongFilterValue(filters, "offset");
+        long limit = getLongFilterValue(filters, "limit");
+        boolean comments = getBooleanFilterValue(filters, "comments");
+        if (limit == 0) {
+            throw ApiException.badRequest("For a search need to provide a limit value > 0.");
         }
-        Object tasksObject = comments ? taskStream
-                .map(task -> Map.of("task", task, "comments", commentService.findAllByTaskId(task.getId())))
-                .collect(Collectors.toList()) : taskStream.toList();
-        return Map.of("tasks", tasksObject, "total", totalFilteredTask);
+        Page<Task> page = taskRepository.search(filter, query,
+                PageRequest.of((int) Math.min(offset, Integer.MAX_VALUE), (int) Math.min(limit, Integer.MAX_VALUE)));
+        checkSkipped(offset, limit, page.getTotalElements());
+        scannedRows.record(page.getTotalElements());
+        returnedRows.record(page.getNumberOfElements());
+        return new TasksResponse(getTasksObject(page.getContent(), comments), page.getTotalElements());
     }
 
     @Override
-    public Map<String, Object> deleteTask(Long taskId, String requester) {
-        Task task = getTask(taskId);
-        isAuthor(task, Map.of("author", requester));
-        taskRepository.deleteById(taskId);
-        return Map.of("task", task);
+    @Timed("task.service")
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public VersionedResponse<TasksResponse> searchTasks(Map<String, String> filters, Predicate<String> notModified) {
+        return getVersioned(filters, notModified, this::searchTasks);
     }
 
     @Override
-    public Map<String, Object> setTaskStatus(Long taskId, Map<String, String> fields) {
-        Task task = getTask(taskId);
-        if (fields.containsKey("requester") && fields.get("requester") != null) {
-            if (task.getAuthor().equals(fields.get("requester"))
-                    || fields.get("requester").equals(task.getPerformer())) {
-                setEnumField(task, fields, "status", Task.Status.values(), false, true);
-                return Map.of("task", taskRepository.save(task));
-            }
-            throw new IllegalArgumentException(
-                    String.format("ERROR[403]: You are not an author or a performer of the task(%d).", taskId));
+    @Timed("task.service")
+    @Transactional(readOnly = true)
+    public TaskStatsResponse getTaskStats(String requester) {
+        Map<Task.Status, Map<Task.Priority, Long>> author = getEmptyStats();
+        Map<Task.Status, Map<Task.Priority, Long>> performer = getEmptyStats();
+        for (TaskCount count : taskRepository.countTasks(requester)) {
+            (count.isAuthor() ? author : performer).get(count.getStatus()).put(count.getPriority(), count.getCount());
         }
-        throw new NullPointerException("ERROR[403]: Can't identify requester.");
+        return new TaskStatsResponse(author, performer);
+    }
+
+    @Override
+    @Timed("task.service")
+    public TaskExport exportTasks(Map<String, String> filters) {
+        TaskFilter filter = getTaskFilter(filters);
+        boolean comments = getBooleanFilterValue(filters, "comments");
+        return outputStream -> transactionTemplate.executeWithoutResult(transactionStatus -> {
+            List<Task> chunk = new ArrayList<>(EXPORT_FETCH_SIZE);
+            taskRepository.streamAll(filter, EXPORT_FETCH_SIZE, task -> {
+                chunk.add(task);
+                if (chunk.size() == EXPORT_FETCH_SIZE) {
+                    writeExportChunk(outputStream, chunk, comments);
+                }
+            });
+            writeExportChunk(outputStream, chunk, comments);
+        });
+    }
+
+    @Override
+    @Timed("task.service")
+    public TaskResponse deleteTask(Long taskId, String ifMatch, Map<String, String> fields) {
+        TaskMutation mutation = taskRepository.deleteTask(taskId, getExpectedVersion(ifMatch), fields.get("author"));
+        return new TaskResponse(getMutatedTask(mutation, taskId, AUTHOR_ERROR));
+    }
+
+    @Override
+    @Timed("task.service")
+    public TaskResponse setTaskStatus(Long taskId, String ifMatch, Map<String, String> fields) {
+        String requester = getRequester(fields);
+        Task task = new Task();
+        setEnumField(fields, "status", Task.Status.class, false, true, task::setStatus);
+        TaskMutation mutation = taskRepository.updateTaskStatus(taskId, getExpectedVersion(ifMatch), requester, task.getStatus());
+        return new TaskResponse(getMutatedTask(mutation, taskId, AUTHOR_OR_PERFORMER_ERROR));
     }
 
     @Override
-    public Map<String, Object> setTaskPerformer(Long taskId, Map<String, String> fields) {
-        Task task = getTask(taskId);
-        isAuthor(task, fields);
-        setTextField(task, fields, "performer", MAX_EMAIL_LENGTH, true, true);
-        return Map.of("task", taskRepository.save(task));
+    @Timed("task.service")
+    public TaskResponse setTaskPerformer(Long taskId, String ifMatch, Map<String, String> fields) {
+        Task task = new Task();
+        setPerformerField(task, fields, true);
+        TaskMutation mutation = taskRepository.updateTaskPerformer(taskId, getExpectedVersion(ifMatch), fields.get("author"),
+                task.getPerformer());
+        return new TaskResponse(getMutatedTask(mutation, taskId, AUTHOR_ERROR));
+    }
+
+    @Override
+    @Timed("task.service")
+    public TasksResponse setTasksStatus(Map<String, String> filters, Map<String, String> fields) {
+        Task task = new Task();
+        setEnumField(fields, "status", Task.Status.class, false, true, task::setStatus);
+        List<Task> taskList = taskRepository.updateStatus(getBulkTaskFilter(filters), getLongListFilterValue(filters, "ids"),
+                getRequester(filters), task.getStatus());
+        return getBulkResult(taskList);
+    }
+
+    @Override
+    @Timed("task.service")
+    public TasksResponse setTasksPerformer(Map<String, String> filters, Map<String, String> fields) {
+        Task task = new Task();
+        setPerformerField(task, fields, true);
+        List<Task> taskList = taskRepository.updatePerformer(getBulkTaskFilter(filters), getLongListFilterValue(filters, "ids"),
+                getRequester(filters), task.getPerformer());
+        return getBulkResult(taskList);
     }
 
     @Override
-    public Map<String, Object> addComment(Long taskId, Map<String, String> fields) {
-        if (fields.containsKey("text")) {
-            getTask(taskId);
-            return commentService.addComment(taskId, fields.get("author"), fields.get("text"));
+    @Timed("task.service")
+    public CommentResponse addComment(Long taskId, String ifMatch, Map<String, String> fields) {
+        String text = getCommentText(fields);
+        CommentMutation mutation = commentService.addComment(taskId, getExpectedVersion(ifMatch), fields.get("author"), text);
+        switch (mutation.getResult()) {
+            case NOT_FOUND -> throw new ApiException(HttpStatus.NOT_FOUND, String.format(NOT_FOUND_ERROR, taskId));
+            case PRECONDITION_FAILED -> throw new ApiException(HttpStatus.PRECONDITION_FAILED,
+                    String.format(PRECONDITION_ERROR, taskId));
         }
-        throw new NullPointerException("ERROR[400]: Field(text) not found.");
+        return new CommentResponse(mutation.getComment());
     }
 
-    private Task getTask(Long taskId) throws NoSuchElementException {
-        if (taskRepository.findById(taskId).isPresent()) {
-            return taskRepository.findById(taskId).get();
+    // Called in one transaction, so the version and the tasks are read through one connection with one snapshot
+    // (also on a replica) and the ETag describes exactly the returned tasks.
+    private <T> VersionedResponse<T> getVersioned(Map<String, String> filters, Predicate<String> notModified,
+                                                  Function<Map<String, String>, T> query) {
+        String eTag = getTasksETag(filters);
+        if (eTag != null && notModified.test(eTag)) {
+            return new VersionedResponse<>(eTag, null);
         }
-        throw new NoSuchElementException(String.format("ERROR[404]: A task(%d) not exists.", taskId));
+        return new VersionedResponse<>(eTag, query.apply(filters));
     }
 
-    private void isAuthor(Task task, Map<String, String> fields) throws IllegalArgumentException {
-        if (!(fields.containsKey("author") && task.getAuthor().equals(fields.get("author")))) {
-            throw new IllegalArgumentException(String.format("ERROR[403]: You are not an author of the task(%d).", task.getId()));
+    private String getTasksETag(Map<String, String> filters) throws ApiException {
+        TaskFilter filter = getTaskFilter(filters);
+        String user;
+        if (!filter.getAuthor().isEmpty()) {
+            user = filter.getAuthor();
+        } else if (filter.getPerformer() != null && !filter.getPerformer().isEmpty()) {
+            user = filter.getPerformer();
+        } else {
+            return null;
         }
+        return String.format("W/\"%d-%08x\"", taskRepository.findTasksVersion(user), new TreeMap<>(filters).hashCode());
     }
 
-    private void setTextField(Task task, Map<String, String> fields, String fieldName,
-                              int maxLength, boolean nullable, boolean required)
-            throws NullPointerException, NoSuchElementException, IllegalArgumentException {
-        if (fields.containsKey(fieldName)) {
-            if (fields.get(fieldName) != null) {
-                if (fields.get(fieldName).length() <= maxLength) {
-                    switch (fieldName) {
-                        case "title" -> task.setTitle(fields.get(fieldName));
-                        case "description" -> task.setDescription(fields.get(fieldName));
-                        case "author" -> task.setAuthor(fields.get(fieldName));
-                        case "performer" -> {
-                            if (userService.findUserByEmail(fields.get(fieldName)) != null) {
-                                task.setPerformer(fields.get(fieldName));
-                            } else {
-                                throw new IllegalArgumentException(
-                                        String.format("ERROR[400]: Field(%s) can't be set, because user with specified email(%s) not exists.",
-                                                fieldName, fields.get(fieldName)));
-                            }
-                        }
-                    }
-                } else {
-                    throw new IllegalArgumentException(String.format("ERROR[400]: Field(%s) exceeds max length(%d > %d).",
-                            fieldName, fields.get(fieldName).length(), maxLength));
-                }
-            } else if (nullable) {
-                switch (fieldName) {
-                    case "performer" -> task.setPerformer(fields.get(fieldName));
-                }
-            } else {
-                throw new NullPointerException(String.format("ERROR[400]: Field(%s) can not be null.", fieldName));
-            }
-        } else if (required) {
-            throw new NoSuchElementException(String.format("ERROR[400]: Field(%s) not found.", fieldName));
+    private TasksCursorResponse getTasksAfterCursor(Specification<Task> specification, String cursor,
+                                                    long offset, long limit, boolean comments)
+            throws ApiException {
+        checkCursorPage(offset, limit);
+        if (cursor != null && !cursor.isEmpty()) {
+            long lastId = decodeCursor(cursor);
+            specification = specification.and((root, query, builder) -> builder.greaterThan(root.get("id"), lastId));
         }
+        int pageSize = (int) Math.min(limit, Integer.MAX_VALUE - 1);
+        List<Task> taskList = taskRepository.findBy(specification,
+                query -> query.sortBy(TASK_ORDER).limit(pageSize + 1).all());
+        scannedRows.record(taskList.size());
+        String next = null;
+        if (taskList.size() > pageSize) {
+            taskList = taskList.subList(0, pageSize);
+            next = encodeCursor(taskList.get(pageSize - 1).getId());
+        }
+        returnedRows.record(taskList.size());
+        return new TasksCursorResponse(getTasksObject(taskList, comments), next);
     }
 
-    private void setEnumField(Task task, Map<String, String> fields, String fieldName,
-                              Object[] validValues, boolean nullable, boolean required)
-            throws NullPointerException, NoSuchElementException, IllegalArgumentException {
-        if (fields.containsKey(fieldName)) {
-            if (fields.get(fieldName) != null) {
-                try {
-                    switch (fieldName) {
-                        case "status" -> task.setStatus(Task.Status.valueOf(fields.get(fieldName).toUpperCase()));
-                        case "priority" -> task.setPriority(Task.Priority.valueOf(fields.get(fieldName).toUpperCase()));
-                    }
-                } catch (IllegalArgumentException e) {
-                    throw new IllegalArgumentException(String.format("ERROR[400]: Invalid value for %s, valid values are %s.",
-                            fieldName, Arrays.toString(validValues)));
-                }
-            } else if (!nullable) {
-                throw new NullPointerException(String.format("ERROR[400]: Field(%s) can not be null.", fieldName));
+    private void writeExportChunk(OutputStream outputStream, List<Task> chunk, boolean comments)
+            throws UncheckedIOException {
+        try {
+            // Comments are read as plain rows, so the persistence context of the export transaction doesn't grow
+            // with every chunk.
+            List<?> lines = comments ? getTasksObject(chunk, commentService.findRowsByTaskIds(getIds(chunk))) : chunk;
+            for (Object line : lines) {
+                outputStream.write(objectMapper.writeValueAsBytes(line));
+                outputStream.write('\n');
             }
+            outputStream.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        chunk.clear();
+    }
 
-        } else if (required) {
-            throw new NoSuchElementException(String.format("ERROR[400]: Field(%s) not found.", fieldName));
+    private List<?> getTasksObject(List<Task> taskList, boolean comments) {
+        if (!comments) {
+            return taskList;
         }
+        return getTasksObject(taskList, commentService.findAllByTaskIds(getIds(taskList)));
     }
 
-    private String getStringFilterValue(Map<String, String> filters, String filterName)
-            throws IllegalArgumentException {
-        if (filters.containsKey(filterName)) {
-            if (filters.get(filterName).equals("ME")) {
-                if (filters.containsKey("requester") && filters.get("requester") != null) {
-                    return filters.get("requester");
-                } else {
-                    throw new IllegalArgumentException(
-                            String.format("ERROR[400]: Can't identify the filter(%s) value.", filterName));
-                }
+    private List<TaskCommentsResponse> getTasksObject(List<Task> taskList, Map<Long, List<Comment>> commentsByTask) {
+        return taskList.stream()
+                .map(task -> new TaskCommentsResponse(task, commentsByTask.getOrDefault(task.getId(), List.of())))
+                .toList();
+    }
+
+    private List<Long> getIds(List<Task> taskList) {
+        return taskList.stream().map(Task::getId).toList();
+    }
+
+    private Map<Task.Status, Map<Task.Priority, Long>> getEmptyStats() {
+        Map<Task.Status, Map<Task.Priority, Long>> stats = new EnumMap<>(Task.Status.class);
+        for (Task.Status status : Task.Status.values()) {
+            Map<Task.Priority, Long> counts = new EnumMap<>(Task.Priority.class);
+            for (Task.Priority priority : Task.Priority.values()) {
+                counts.put(priority, 0L);
             }
-            return filters.get(filterName).equalsIgnoreCase("null") ? null : filters.get(filterName);
+            stats.put(status, counts);
         }
-        return "";
+        return stats;
     }
 
-    private Long getLongFilterValue(Map<String, String> filters, String filterName)
-            throws NumberFormatException, IllegalArgumentException {
-        if (filters.containsKey(filterName)) {
-            try {
-                long value = Long.parseLong(filters.get(filterName));
-                if (value < 0) {
-                    throw new IllegalArgumentException(String.format("ERROR[400]: Filter(%s) can't have a negative value.", filterName));
-                }
-                return value;
-            } catch (NumberFormatException e) {
-                throw new NumberFormatException(String.format("ERROR[400]: Filter(%s) is not Long type.", filterName));
-            }
+    private Task getNewTask(Map<String, String> fields)
+            throws ApiException {
+        Task task = new Task();
+        setTextField(fields, "author", MAX_EMAIL_LENGTH, false, true, task::setAuthor);
+        setTextField(fields, "title", MAX_TITLE_LENGTH, false, true, task::setTitle);
+        setTextField(fields, "description", MAX_DESCRIPTION_LENGTH, false, true, task::setDescription);
+        setEnumField(fields, "status", Task.Status.class, false, false, task::setStatus);
+        setEnumField(fields, "priority", Task.Priority.class, false, false, task::setPriority);
+        setPerformerField(task, fields, false);
+        return task;
+    }
+
+    private TaskFilter getTaskFilter(Map<String, String> filters) throws ApiException {
+        String author = getStringFilterValue(filters, "author");
+        String performer = getStringFilterValue(filters, "performer");
+        Task.Status status = getEnumFilterValue(filters, "status", Task.Status.class);
+        Task.Priority priority = getEnumFilterValue(filters, "priority", Task.Priority.class);
+        if (author == null) {
+            throw ApiException.badRequest("Filter(author) can't be null.");
         }
-        return 0L;
+        return new TaskFilter(author, performer, status, priority);
     }
 
-    private Boolean getBooleanFilterValue(Map<String, String> filters, String filterName)
-            throws IllegalArgumentException {
-        if (filters.containsKey(filterName)) {
-            if (filters.get(filterName).equalsIgnoreCase("true")) {
-                return true;
-            } else if (filters.get(filterName).equalsIgnoreCase("false")) {
-                return false;
-            }
-            throw new IllegalArgumentException(String.format("ERROR[400]: Filter(%s) is not Boolean type.", filterName));
+    private Long getExpectedVersion(String ifMatch) throws ApiException {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        Matcher matcher = STRONG_ETAG.matcher(ifMatch.trim());
+        if (matcher.matches()) {
+            return Long.parseLong(matcher.group(1));
         }
-        return false;
+        throw new ApiException(HttpStatus.PRECONDITION_FAILED, "Header(If-Match) must be * or a strong ETag of the task.");
     }
 
-    private Object getEnumFilterValue(Map<String, String> filters, String filterName)
-            throws IllegalArgumentException {
-        if (filters.containsKey(filterName)) {
-            try {
-                switch (filterName) {
-                    case "status" -> {
-                        return Task.Status.valueOf(filters.get(filterName).toUpperCase());
-                    }
-                    case "priority" -> {
-                        return Task.Priority.valueOf(filters.get(filterName).toUpperCase());
-                    }
-                    default -> throw new IllegalArgumentException(String.format("ERROR[500]: Filter(%s) is unknown.",
-                            filterName));
-                }
-            } catch (IllegalArgumentException e) {
-                String expectedValues;
-                switch (filterName) {
-                    case "status" -> expectedValues = Arrays.toString(Task.Status.values());
-                    case "priority" -> expectedValues = Arrays.toString(Task.Priority.values());
-                    default -> expectedValues = "[]";
-                }
-                throw new IllegalArgumentException(String.format("ERROR[400]: Filter(%s) is not one of the expected value %s.",
-                        filterName, expectedValues));
-            }
+    private TaskFilter getBulkTaskFilter(Map<String, String> filters) throws ApiException {
+        if (BULK_FILTERS.stream().noneMatch(filters::containsKey)) {
+            throw ApiException.badRequest("At least one of the filters %s must be provided.", BULK_FILTERS);
         }
-        return null;
+        return getTaskFilter(filters);
+    }
+
+    private String getRequester(Map<String, String> filters) throws ApiException {
+        if (filters.containsKey("requester") && filters.get("requester") != null) {
+            return filters.get("requester");
+        }
+        throw new ApiException(HttpStatus.FORBIDDEN, "Can't identify requester.");
+    }
+
+    private TasksResponse getBulkResult(List<Task> taskList) {
+        List<Task> sortedTaskList = taskList.stream()
+                .sorted(Comparator.comparing(Task::getId))
+                .toList();
+        return new TasksResponse(sortedTaskList, sortedTaskList.size());
+    }
+
+    private Task getMutatedTask(TaskMutation mutation, Long taskId, String forbiddenError)
+            throws ApiException {
+        switch (mutation.getResult()) {
+            case NOT_FOUND -> throw new ApiException(HttpStatus.NOT_FOUND, String.format(NOT_FOUND_ERROR, taskId));
+            case FORBIDDEN -> throw new ApiException(HttpStatus.FORBIDDEN, String.format(forbiddenError, taskId));
+            case PRECONDITION_FAILED -> throw new ApiException(HttpStatus.PRECONDITION_FAILED,
+                    String.format(PRECONDITION_ERROR, taskId));
+            case CONFLICT -> throw new ApiException(HttpStatus.CONFLICT, String.format(CONFLICT_ERROR, taskId));
+        }
+        return mutation.getTask();
+    }
+
+    private void setPerformerField(Task task, Map<String, String> fields, boolean required) throws ApiException {
+        setTextField(fields, "performer", MAX_EMAIL_LENGTH, true, required, performer -> {
+            if (performer != null && userService.findUserByEmail(performer) == null) {
+                throw unknownPerformer(performer);
+            }
+            task.setPerformer(performer);
+        });
     }
 }
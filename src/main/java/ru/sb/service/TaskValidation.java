@@ -0,0 +1,189 @@
+package ru.sb.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Validation of task fields and list filters shared by the servlet and the reactive(WebFlux) variants of the API,
+ * so both of them accept the same requests and answer with the same error messages. It depends only on
+ * ApiException and the JDK, the setters and the enum types are provided by the caller.
+ */
+public final class TaskValidation {
+    public static final int MAX_TITLE_LENGTH = 50;
+    public static final int MAX_DESCRIPTION_LENGTH = 300;
+    public static final int MAX_EMAIL_LENGTH = 30;
+    public static final int MAX_COMMENT_LENGTH = 300;
+
+    private TaskValidation() {
+    }
+
+    public static void setTextField(Map<String, String> fields, String fieldName, int maxLength,
+                                    boolean nullable, boolean required, Consumer<String> setter)
+            throws ApiException {
+        if (fields.containsKey(fieldName)) {
+            String value = fields.get(fieldName);
+            if (value != null) {
+                if (value.length() > maxLength) {
+                    throw ApiException.badRequest("Field(%s) exceeds max length(%d > %d).",
+                            fieldName, value.length(), maxLength);
+                }
+                setter.accept(value);
+            } else if (nullable) {
+                setter.accept(null);
+            } else {
+                throw ApiException.badRequest("Field(%s) can not be null.", fieldName);
+            }
+        } else if (required) {
+            throw ApiException.badRequest("Field(%s) not found.", fieldName);
+        }
+    }
+
+    public static <E extends Enum<E>> void setEnumField(Map<String, String> fields, String fieldName, Class<E> type,
+                                                        boolean nullable, boolean required, Consumer<E> setter)
+            throws ApiException {
+        if (fields.containsKey(fieldName)) {
+            if (fields.get(fieldName) != null) {
+                try {
+                    setter.accept(Enum.valueOf(type, fields.get(fieldName).toUpperCase()));
+                } catch (IllegalArgumentException e) {
+                    throw ApiException.badRequest("Invalid value for %s, valid values are %s.",
+                            fieldName, Arrays.toString(type.getEnumConstants()));
+                }
+            } else if (!nullable) {
+                throw ApiException.badRequest("Field(%s) can not be null.", fieldName);
+            }
+        } else if (required) {
+            throw ApiException.badRequest("Field(%s) not found.", fieldName);
+        }
+    }
+
+    public static ApiException unknownPerformer(String performer) {
+        return ApiException.badRequest("Field(%s) can't be set, because user with specified email(%s) not exists.",
+                "performer", performer);
+    }
+
+    public static String getCommentText(Map<String, String> fields) throws ApiException {
+        if (!fields.containsKey("text")) {
+            throw ApiException.badRequest("Field(text) not found.");
+        }
+        String text = fields.get("text");
+        if (text == null) {
+            throw ApiException.badRequest("Comment text can't be null.");
+        } else if (text.length() > MAX_COMMENT_LENGTH) {
+            throw ApiException.badRequest("Comment text exceeds max length(%d > %d).",
+                    text.length(), MAX_COMMENT_LENGTH);
+        }
+        return text;
+    }
+
+    public static String getStringFilterValue(Map<String, String> filters, String filterName)
+            throws ApiException {
+        if (filters.containsKey(filterName)) {
+            if (filters.get(filterName).equals("ME")) {
+                if (filters.containsKey("requester") && filters.get("requester") != null) {
+                    return filters.get("requester");
+                }
+                throw ApiException.badRequest("Can't identify the filter(%s) value.", filterName);
+            }
+            return filters.get(filterName).equalsIgnoreCase("null") ? null : filters.get(filterName);
+        }
+        return "";
+    }
+
+    public static long getLongFilterValue(Map<String, String> filters, String filterName)
+            throws ApiException {
+        if (filters.containsKey(filterName)) {
+            long value;
+            try {
+                value = Long.parseLong(filters.get(filterName));
+            } catch (NumberFormatException e) {
+                throw ApiException.badRequest("Filter(%s) is not Long type.", filterName);
+            }
+            if (value < 0) {
+                throw ApiException.badRequest("Filter(%s) can't have a negative value.", filterName);
+            }
+            return value;
+        }
+        return 0L;
+    }
+
+    public static List<Long> getLongListFilterValue(Map<String, String> filters, String filterName)
+            throws ApiException {
+        if (filters.containsKey(filterName)) {
+            try {
+                return Arrays.stream(filters.get(filterName).split(","))
+                        .map(String::trim)
+                        .map(Long::valueOf)
+                        .toList();
+            } catch (NumberFormatException e) {
+                throw ApiException.badRequest("Filter(%s) is not a list of Long type.", filterName);
+            }
+        }
+        return null;
+    }
+
+    public static boolean getBooleanFilterValue(Map<String, String> filters, String filterName)
+            throws ApiException {
+        if (filters.containsKey(filterName)) {
+            if (filters.get(filterName).equalsIgnoreCase("true")) {
+                return true;
+            } else if (filters.get(filterName).equalsIgnoreCase("false")) {
+                return false;
+            }
+            throw ApiException.badRequest("Filter(%s) is not Boolean type.", filterName);
+        }
+        return false;
+    }
+
+    public static <E extends Enum<E>> E getEnumFilterValue(Map<String, String> filters, String filterName,
+                                                           Class<E> type)
+            throws ApiException {
+        if (filters.containsKey(filterName)) {
+            try {
+                return Enum.valueOf(type, filters.get(filterName).toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw ApiException.badRequest("Filter(%s) is not one of the expected value %s.",
+                        filterName, Arrays.toString(type.getEnumConstants()));
+            }
+        }
+        return null;
+    }
+
+    public static void checkPage(long offset, long limit) throws ApiException {
+        if (offset > 0 && limit == 0) {
+            throw ApiException.badRequest("For an offset value > 0 need to provide a limit value > 0.");
+        }
+    }
+
+    public static void checkCursorPage(long offset, long limit) throws ApiException {
+        if (offset > 0) {
+            throw ApiException.badRequest("Filters(offset) and (cursor) can't be used together.");
+        }
+        if (limit == 0) {
+            throw ApiException.badRequest("For a cursor need to provide a limit value > 0.");
+        }
+    }
+
+    public static void checkSkipped(long offset, long limit, long total) throws ApiException {
+        if (offset * limit >= total && offset * limit > 0) {
+            throw ApiException.badRequest("You wanted to skip %d, but after filtering there were only %d items left.",
+                    offset * limit, total);
+        }
+    }
+
+    public static String encodeCursor(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(lastId.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static long decodeCursor(String cursor) throws ApiException {
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw ApiException.badRequest("Filter(cursor) is invalid.");
+        }
+    }
+}
@@ -21,6 +21,7 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         if (user == null) {
             throw new UsernameNotFoundException(email);
         }
-        return new User(user.getEmail(), "{noop}" + user.getPassword(), List.of(new SimpleGrantedAuthority("USER")));
+        return new User(user.getEmail(), "{noop}" + user.getPassword(), user.isEnabled(), true, true, true,
+                List.of(new SimpleGrantedAuthority("USER")));
     }
 }
\ No newline at end of file
@@ -0,0 +1,67 @@
+package ru.sb.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.sb.model.User;
+import ru.sb.model.UserAccount;
+import ru.sb.model.UserRepository;
+
+import java.time.Duration;
+
+/**
+ * Looks users up by email. Existing users are served by the natural-id second-level cache of User, only emails
+ * without a user are remembered here, so repeated lookups of unknown performers don't reach the database.
+ * <p>
+ * The cache holds only the unknown emails, so its hit ratio(the userDirectory cache metrics) is the share of
+ * lookups answered as unknown without a query, a lookup of an existing user is always a miss. The lookups which
+ * miss it are timed by users.directory.load, whether they are served by the natural-id cache or by the database.
+ */
+@Component
+public class UserDirectory {
+    private final UserRepository userRepository;
+    private final Cache<String, Boolean> unknownEmails;
+    private final Timer loadTimer;
+
+    public UserDirectory(UserRepository userRepository, MeterRegistry meterRegistry,
+                         @Value("${users.cache.maximum-size:10000}") long maximumSize,
+                         @Value("${users.cache.negative-ttl:1m}") Duration negativeTtl) {
+        this.userRepository = userRepository;
+        this.loadTimer = Timer.builder("users.directory.load")
+                .description("Lookups of users by email which missed the unknown emails cache")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.unknownEmails = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(negativeTtl)
+                .recordStats()
+                .build();
+    }
+
+    public UserAccount findUserByEmail(String email) {
+        if (unknownEmails.getIfPresent(email) != null) {
+            return null;
+        }
+        User user = loadTimer.record(() -> userRepository.findUserByEmail(email));
+        if (user == null) {
+            unknownEmails.put(email, Boolean.TRUE);
+            return null;
+        }
+        return new UserAccount(user.getEmail(), user.isEnabled());
+    }
+
+    public void invalidate(String email) {
+        unknownEmails.invalidate(email);
+    }
+
+    public void invalidateAll() {
+        unknownEmails.invalidateAll();
+    }
+
+    public Cache<String, Boolean> getCache() {
+        return unknownEmails;
+    }
+}
@@ -0,0 +1,59 @@
+package ru.sb.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+import ru.sb.model.User;
+
+/**
+ * Forgets an email in the UserDirectory once a user with it is saved and committed. It is registered as a
+ * Hibernate event listener, so the entities of ru.sb.model don't depend on the services.
+ */
+@Component
+public class UserDirectoryInvalidator implements PostCommitInsertEventListener, PostCommitUpdateEventListener {
+    private final UserDirectory userDirectory;
+
+    public UserDirectoryInvalidator(UserDirectory userDirectory, EntityManagerFactory entityManagerFactory) {
+        this.userDirectory = userDirectory;
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        invalidate(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        invalidate(event.getEntity());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister.getMappedClass() == User.class;
+    }
+
+    private void invalidate(Object entity) {
+        if (entity instanceof User user) {
+            userDirectory.invalidate(user.getEmail());
+        }
+    }
+}
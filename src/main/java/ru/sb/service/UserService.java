@@ -1,11 +1,12 @@
 package ru.sb.service;
 
-import ru.sb.model.User;
+import ru.sb.dto.TokenResponse;
+import ru.sb.model.UserAccount;
 
 import java.util.Map;
 
 public interface UserService {
-    User findUserByEmail(String email);
+    UserAccount findUserByEmail(String email);
 
-    Map<String, Object> login(Map<String, String> fields);
+    TokenResponse login(Map<String, String> fields);
 }
\ No newline at end of file
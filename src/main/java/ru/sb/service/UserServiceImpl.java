@@ -1,6 +1,7 @@
 package ru.sb.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -8,42 +9,42 @@ import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import ru.sb.config.security.JwtService;
-import ru.sb.model.User;
-import ru.sb.model.UserRepository;
+import ru.sb.dto.TokenResponse;
+import ru.sb.model.UserAccount;
 
 import java.util.Map;
 
 @Service
 public class UserServiceImpl implements UserService {
-    private UserRepository userRepository;
+    private UserDirectory userDirectory;
     @Autowired
     private JwtService jwtService;
 
     @Autowired
     private AuthenticationProvider authenticationProvider;
 
-    public UserServiceImpl(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    public UserServiceImpl(UserDirectory userDirectory) {
+        this.userDirectory = userDirectory;
     }
 
     @Override
-    public User findUserByEmail(String email) {
-        return userRepository.findUserByEmail(email);
+    public UserAccount findUserByEmail(String email) {
+        return userDirectory.findUserByEmail(email);
     }
 
     @Override
-    public Map<String, Object> login(Map<String, String> fields) {
+    public TokenResponse login(Map<String, String> fields) {
         if (!fields.containsKey("email") || !fields.containsKey("password")
                 || fields.get("email") == null || fields.get("password") == null) {
-            throw new IllegalArgumentException("ERROR[400]: The Email and Password fields are required and cannot be null.");
+            throw ApiException.badRequest("The Email and Password fields are required and cannot be null.");
         }
         try {
             Authentication authentication = authenticationProvider.authenticate(
                     new UsernamePasswordAuthenticationToken(fields.get("email"), fields.get("password")));
             SecurityContextHolder.getContext().setAuthentication(authentication);
-            return Map.of("token", getJwt(fields.get("email")));
+            return new TokenResponse(getJwt(fields.get("email")));
         } catch (AuthenticationException e) {
-            throw new RuntimeException("ERROR[403]: Authentication failed.");
+            throw new ApiException(HttpStatus.FORBIDDEN, "Authentication failed.");
         }
     }
 
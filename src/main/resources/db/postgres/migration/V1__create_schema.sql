@@ -1,28 +1,42 @@
-DROP TABLE IF EXISTS comments;
-
-DROP TABLE IF EXISTS tasks;
-
-DROP TABLE IF EXISTS users;
-
-DROP CAST IF EXISTS (VARCHAR AS STATUS);
-
-DROP CAST IF EXISTS (VARCHAR AS PRIORITY);
-
-DROP CAST IF EXISTS (VARCHAR AS TIMESTAMPTZ);
-
-DROP TYPE IF EXISTS STATUS;
-
-DROP TYPE IF EXISTS PRIORITY;
-
-CREATE TYPE STATUS AS ENUM ('PENDING', 'IN_PROCESS', 'DONE');
-
-CREATE TYPE PRIORITY AS ENUM ('LOW', 'MEDIUM', 'HIGH');
-
-CREATE CAST (VARCHAR AS STATUS) WITH INOUT AS IMPLICIT;
-
-CREATE CAST (VARCHAR AS PRIORITY) WITH INOUT AS IMPLICIT;
-
-CREATE CAST (VARCHAR AS TIMESTAMPTZ) WITH INOUT AS IMPLICIT;
+DO $$
+BEGIN
+	CREATE TYPE STATUS AS ENUM ('PENDING', 'IN_PROCESS', 'DONE');
+EXCEPTION
+	WHEN duplicate_object THEN NULL;
+END
+$$;
+
+DO $$
+BEGIN
+	CREATE TYPE PRIORITY AS ENUM ('LOW', 'MEDIUM', 'HIGH');
+EXCEPTION
+	WHEN duplicate_object THEN NULL;
+END
+$$;
+
+DO $$
+BEGIN
+	CREATE CAST (VARCHAR AS STATUS) WITH INOUT AS IMPLICIT;
+EXCEPTION
+	WHEN duplicate_object THEN NULL;
+END
+$$;
+
+DO $$
+BEGIN
+	CREATE CAST (VARCHAR AS PRIORITY) WITH INOUT AS IMPLICIT;
+EXCEPTION
+	WHEN duplicate_object THEN NULL;
+END
+$$;
+
+DO $$
+BEGIN
+	CREATE CAST (VARCHAR AS TIMESTAMPTZ) WITH INOUT AS IMPLICIT;
+EXCEPTION
+	WHEN duplicate_object THEN NULL;
+END
+$$;
 
 CREATE TABLE IF NOT EXISTS tasks (
 	id BIGSERIAL PRIMARY KEY,
@@ -34,7 +48,6 @@ CREATE TABLE IF NOT EXISTS tasks (
 	performer VARCHAR(30)
 );
 
-
 CREATE TABLE IF NOT EXISTS comments (
 	id BIGSERIAL PRIMARY KEY,
 	task_id BIGINT REFERENCES tasks ON DELETE CASCADE,
@@ -48,5 +61,3 @@ CREATE TABLE IF NOT EXISTS users (
 	email VARCHAR(30) NOT NULL UNIQUE,
 	password VARCHAR(50) NOT NULL
 );
-
-
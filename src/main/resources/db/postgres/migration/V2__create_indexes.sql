@@ -0,0 +1,7 @@
+CREATE INDEX CONCURRENTLY IF NOT EXISTS tasks_author_status_priority_idx ON tasks (author, status, priority, id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS tasks_performer_status_priority_idx ON tasks (performer, status, priority, id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS tasks_status_priority_idx ON tasks (status, priority, id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS comments_task_id_timestamp_idx ON comments (task_id, timestamp);
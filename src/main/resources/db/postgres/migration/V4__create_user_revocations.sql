@@ -0,0 +1,29 @@
+ALTER TABLE users ADD COLUMN IF NOT EXISTS enabled BOOLEAN DEFAULT TRUE NOT NULL;
+
+CREATE TABLE IF NOT EXISTS user_revocations (
+	email VARCHAR(30) PRIMARY KEY,
+	revoked_at TIMESTAMPTZ DEFAULT CURRENT_TIMESTAMP NOT NULL
+);
+
+CREATE OR REPLACE FUNCTION revoke_user() RETURNS TRIGGER AS $$
+BEGIN
+	IF TG_OP = 'DELETE' THEN
+		INSERT INTO user_revocations(email) VALUES (OLD.email)
+			ON CONFLICT (email) DO UPDATE SET revoked_at = CURRENT_TIMESTAMP;
+		RETURN OLD;
+	END IF;
+	IF TG_OP = 'UPDATE' AND (OLD.email <> NEW.email OR (OLD.enabled AND NOT NEW.enabled)) THEN
+		INSERT INTO user_revocations(email) VALUES (OLD.email)
+			ON CONFLICT (email) DO UPDATE SET revoked_at = CURRENT_TIMESTAMP;
+	END IF;
+	IF NEW.enabled AND (TG_OP = 'INSERT' OR NOT OLD.enabled OR OLD.email <> NEW.email) THEN
+		DELETE FROM user_revocations WHERE email = NEW.email;
+	END IF;
+	RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS users_revocation ON users;
+
+CREATE TRIGGER users_revocation AFTER INSERT OR UPDATE OR DELETE ON users
+	FOR EACH ROW EXECUTE FUNCTION revoke_user();
@@ -0,0 +1,77 @@
+CREATE TABLE IF NOT EXISTS task_versions (
+	email VARCHAR(30) PRIMARY KEY,
+	version BIGINT DEFAULT 0 NOT NULL
+);
+
+CREATE OR REPLACE FUNCTION bump_task_versions(emails VARCHAR[]) RETURNS VOID AS $$
+	INSERT INTO task_versions(email, version)
+		SELECT DISTINCT email, 1 FROM unnest(emails) AS email WHERE email IS NOT NULL ORDER BY email
+		ON CONFLICT (email) DO UPDATE SET version = task_versions.version + 1;
+$$ LANGUAGE SQL;
+
+CREATE OR REPLACE FUNCTION tasks_changed() RETURNS TRIGGER AS $$
+BEGIN
+	IF TG_OP = 'INSERT' THEN
+		PERFORM bump_task_versions(ARRAY(
+			SELECT author FROM new_rows UNION SELECT performer FROM new_rows));
+	ELSIF TG_OP = 'UPDATE' THEN
+		PERFORM bump_task_versions(ARRAY(
+			SELECT author FROM new_rows UNION SELECT performer FROM new_rows
+			UNION SELECT author FROM old_rows UNION SELECT performer FROM old_rows));
+	ELSE
+		PERFORM bump_task_versions(ARRAY(
+			SELECT author FROM old_rows UNION SELECT performer FROM old_rows));
+	END IF;
+	RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION comments_changed() RETURNS TRIGGER AS $$
+BEGIN
+	IF TG_OP = 'INSERT' THEN
+		PERFORM bump_task_versions(ARRAY(
+			SELECT t.author FROM new_rows c JOIN tasks t ON t.id = c.task_id
+			UNION SELECT t.performer FROM new_rows c JOIN tasks t ON t.id = c.task_id));
+	ELSIF TG_OP = 'UPDATE' THEN
+		PERFORM bump_task_versions(ARRAY(
+			SELECT t.author FROM tasks t WHERE t.id IN (SELECT task_id FROM new_rows UNION SELECT task_id FROM old_rows)
+			UNION SELECT t.performer FROM tasks t WHERE t.id IN (SELECT task_id FROM new_rows UNION SELECT task_id FROM old_rows)));
+	ELSE
+		PERFORM bump_task_versions(ARRAY(
+			SELECT t.author FROM old_rows c JOIN tasks t ON t.id = c.task_id
+			UNION SELECT t.performer FROM old_rows c JOIN tasks t ON t.id = c.task_id));
+	END IF;
+	RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS tasks_versions_insert ON tasks;
+DROP TRIGGER IF EXISTS tasks_versions_update ON tasks;
+DROP TRIGGER IF EXISTS tasks_versions_delete ON tasks;
+DROP TRIGGER IF EXISTS comments_versions_insert ON comments;
+DROP TRIGGER IF EXISTS comments_versions_update ON comments;
+DROP TRIGGER IF EXISTS comments_versions_delete ON comments;
+
+CREATE TRIGGER tasks_versions_insert AFTER INSERT ON tasks
+	REFERENCING NEW TABLE AS new_rows
+	FOR EACH STATEMENT EXECUTE FUNCTION tasks_changed();
+
+CREATE TRIGGER tasks_versions_update AFTER UPDATE ON tasks
+	REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+	FOR EACH STATEMENT EXECUTE FUNCTION tasks_changed();
+
+CREATE TRIGGER tasks_versions_delete AFTER DELETE ON tasks
+	REFERENCING OLD TABLE AS old_rows
+	FOR EACH STATEMENT EXECUTE FUNCTION tasks_changed();
+
+CREATE TRIGGER comments_versions_insert AFTER INSERT ON comments
+	REFERENCING NEW TABLE AS new_rows
+	FOR EACH STATEMENT EXECUTE FUNCTION comments_changed();
+
+CREATE TRIGGER comments_versions_update AFTER UPDATE ON comments
+	REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+	FOR EACH STATEMENT EXECUTE FUNCTION comments_changed();
+
+CREATE TRIGGER comments_versions_delete AFTER DELETE ON comments
+	REFERENCING OLD TABLE AS old_rows
+	FOR EACH STATEMENT EXECUTE FUNCTION comments_changed();
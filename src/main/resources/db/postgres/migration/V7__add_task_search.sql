@@ -0,0 +1,2 @@
+CREATE INDEX CONCURRENTLY IF NOT EXISTS tasks_search_idx ON tasks USING GIN (
+	(setweight(to_tsvector('english', title), 'A') || setweight(to_tsvector('english', description), 'B')));
@@ -1,2 +1,4 @@
 DELETE FROM tasks WHERE id > 3;
-DELETE FROM comments WHERE id > 3;
\ No newline at end of file
+DELETE FROM comments WHERE id > 3;
+DELETE FROM user_revocations;
+DELETE FROM users WHERE id > 2;
\ No newline at end of file
@@ -0,0 +1,91 @@
+package ru.sb.TaskManagement;
+
+import org.junit.jupiter.api.Assertions;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Wraps the application DataSource and records the SQL statements(Hibernate and JDBC) executed by the thread
+ * which called start(), so scheduled jobs don't affect the count. A JDBC batch is counted as one statement.
+ */
+public class QueryCounter implements BeanPostProcessor {
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+    private static final Set<String> EXECUTE_METHODS = Set.of("execute", "executeQuery", "executeUpdate",
+            "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+    private static volatile Thread recordingThread;
+
+    public static void start() {
+        STATEMENTS.clear();
+        recordingThread = Thread.currentThread();
+    }
+
+    public static void assertCount(int expected) {
+        recordingThread = null;
+        Assertions.assertEquals(expected, STATEMENTS.size(),
+                () -> "Executed statements:\n" + String.join("\n", STATEMENTS));
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && beanName.equals("dataSource")) {
+            return new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return getCountingConnection(super.getConnection());
+                }
+
+                @Override
+                public Connection getConnection(String username, String password) throws SQLException {
+                    return getCountingConnection(super.getConnection(username, password));
+                }
+            };
+        }
+        return bean;
+    }
+
+    private static Connection getCountingConnection(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(QueryCounter.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    return switch (method.getName()) {
+                        case "createStatement" -> getCountingStatement((Statement) result, Statement.class, null);
+                        case "prepareStatement" ->
+                                getCountingStatement((Statement) result, PreparedStatement.class, (String) args[0]);
+                        case "prepareCall" ->
+                                getCountingStatement((Statement) result, CallableStatement.class, (String) args[0]);
+                        default -> result;
+                    };
+                });
+    }
+
+    private static Statement getCountingStatement(Statement statement, Class<? extends Statement> type, String sql) {
+        return (Statement) Proxy.newProxyInstance(QueryCounter.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if (EXECUTE_METHODS.contains(method.getName()) && recordingThread == Thread.currentThread()) {
+                        STATEMENTS.add(args != null && args.length > 0 && args[0] instanceof String text ? text : sql);
+                    }
+                    return invoke(statement, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
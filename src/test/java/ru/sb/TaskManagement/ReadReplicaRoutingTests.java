@@ -0,0 +1,97 @@
+package ru.sb.TaskManagement;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.sb.config.datasource.ReadWriteRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+@SpringBootTest(properties = {
+        "datasource.replicas.urls=${REPLICA_URL}",
+        "datasource.replicas.lag-check-ms=600000"})
+@EnabledIfSystemProperty(named = "REPLICA_URL", matches = ".+")
+public class ReadReplicaRoutingTests {
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ReadWriteRoutingDataSource routingDataSource;
+    @Autowired
+    private DataSourceProperties properties;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private static final String PORT_QUERY = "SELECT inet_server_port()";
+
+    @Test
+    public void readOnlyTransactionUsesReplica() {
+        Assertions.assertEquals(List.of(0), routingDataSource.getHealthyReplicas());
+        Integer primaryPort = getPort(transactionManager, jdbcTemplate, false);
+        Integer replicaPort = getPort(transactionManager, jdbcTemplate, true);
+        Assertions.assertNotEquals(primaryPort, replicaPort);
+        Assertions.assertEquals(primaryPort, jdbcTemplate.queryForObject(PORT_QUERY, Integer.class));
+    }
+
+    @Test
+    public void readOnlyTransactionDoesNotPutIntoSecondLevelCache() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        Assertions.assertEquals(CacheMode.GET,
+                transactionTemplate.execute(status -> entityManager.unwrap(Session.class).getCacheMode()));
+        transactionTemplate.setReadOnly(false);
+        Assertions.assertEquals(CacheMode.NORMAL,
+                transactionTemplate.execute(status -> entityManager.unwrap(Session.class).getCacheMode()));
+    }
+
+    @Test
+    public void unavailableReplicaFallsBackToPrimary() throws Exception {
+        HikariDataSource replica = properties.initializeDataSourceBuilder().type(HikariDataSource.class)
+                .url("jdbc:postgresql://localhost:1/tasks")
+                .build();
+        replica.setConnectionTimeout(250);
+        assertReadOnlyUsesPrimary(replica, Duration.ofSeconds(10));
+    }
+
+    @Test
+    public void laggingReplicaFallsBackToPrimary() throws Exception {
+        HikariDataSource replica = properties.initializeDataSourceBuilder().type(HikariDataSource.class)
+                .url(System.getProperty("REPLICA_URL"))
+                .build();
+        assertReadOnlyUsesPrimary(replica, Duration.ofMillis(-1));
+    }
+
+    private void assertReadOnlyUsesPrimary(HikariDataSource replica, Duration maxLag) throws Exception {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        try (ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, List.of(replica), maxLag)) {
+            routing.afterPropertiesSet();
+            DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+            PlatformTransactionManager manager = new DataSourceTransactionManager(dataSource);
+            JdbcTemplate template = new JdbcTemplate(dataSource);
+            Assertions.assertTrue(routing.getHealthyReplicas().isEmpty());
+            Assertions.assertEquals(getPort(manager, template, false), getPort(manager, template, true));
+        }
+    }
+
+    private Integer getPort(PlatformTransactionManager manager, JdbcTemplate template, boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(manager);
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status -> template.queryForObject(PORT_QUERY, Integer.class));
+    }
+}
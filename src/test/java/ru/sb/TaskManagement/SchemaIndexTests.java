@@ -0,0 +1,60 @@
+package ru.sb.TaskManagement;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+@SpringBootTest
+public class SchemaIndexTests {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    public void tasksByAuthorUseIndex() {
+        assertPlanUsesIndex("SELECT * FROM tasks WHERE author = 'admin@sb.ru' AND status = 'DONE' AND priority = 'LOW' ORDER BY id",
+                "tasks_author_status_priority_idx");
+    }
+
+    @Test
+    public void tasksByPerformerUseIndex() {
+        assertPlanUsesIndex("SELECT * FROM tasks WHERE performer = 'user@mail.ru' AND status = 'DONE' AND priority = 'LOW' ORDER BY id",
+                "tasks_performer_status_priority_idx");
+    }
+
+    @Test
+    public void tasksByStatusAndPriorityUseIndex() {
+        assertPlanUsesIndex("SELECT * FROM tasks WHERE status = 'DONE' AND priority = 'LOW' ORDER BY id",
+                "tasks_status_priority_idx");
+    }
+
+    @Test
+    public void commentsByTaskUseIndex() {
+        assertPlanUsesIndex("SELECT * FROM comments WHERE task_id = 1 ORDER BY timestamp",
+                "comments_task_id_timestamp_idx");
+    }
+
+    @Test
+    public void tasksBySearchQueryUseIndex() {
+        assertPlanUsesIndex("SELECT * FROM tasks WHERE (setweight(to_tsvector('english', title), 'A') || " +
+                        "setweight(to_tsvector('english', description), 'B')) @@ websearch_to_tsquery('english', 'juice')",
+                "tasks_search_idx");
+    }
+
+    private void assertPlanUsesIndex(String query, String index) {
+        List<String> plan = transactionTemplate.execute(status -> {
+            // The test tables are tiny, so without this the planner prefers a sequential scan.
+            jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+            return jdbcTemplate.queryForList("EXPLAIN " + query, String.class);
+        });
+        Assertions.assertNotNull(plan);
+        Assertions.assertTrue(String.join("\n", plan).contains(index),
+                String.format("Expected %s in the plan:%n%s", index, String.join("\n", plan)));
+    }
+}
@@ -0,0 +1,129 @@
+package ru.sb.TaskManagement;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlGroup;
+import ru.sb.model.Comment;
+import ru.sb.model.CommentRepository;
+import ru.sb.model.Task;
+import ru.sb.model.TaskRepository;
+import ru.sb.model.User;
+import ru.sb.model.UserRepository;
+import ru.sb.service.TaskService;
+import ru.sb.service.UserDirectory;
+import ru.sb.service.UserService;
+
+import java.util.Map;
+
+/**
+ * Changes made by JDBC statements evict the changed rows from the second-level cache, and cached lookups
+ * don't reach the database.
+ */
+@SpringBootTest
+@Import(QueryCounter.class)
+@SqlGroup(value = {
+        @Sql(
+                scripts = "classpath:/db/postgres/test.sql",
+                executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)})
+public class SecondLevelCacheTests {
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserDirectory userDirectory;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private static final String AUTHOR = "admin@sb.ru";
+    private static final String USER = "user@mail.ru";
+
+    @BeforeEach
+    public void clearCaches() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        userDirectory.invalidateAll();
+    }
+
+    @Test
+    public void statusChangeEvictsTask() {
+        Cache cache = entityManagerFactory.getCache();
+        long taskId = taskRepository.save(new Task(null, "Task", "Description", Task.Status.PENDING,
+                Task.Priority.LOW, AUTHOR, USER)).getId();
+        cache.evict(Task.class);
+        taskRepository.findById(taskId).orElseThrow();
+        Assertions.assertTrue(cache.contains(Task.class, taskId));
+
+        taskService.setTaskStatus(taskId, null, Map.of("requester", AUTHOR, "status", "DONE"));
+
+        Assertions.assertFalse(cache.contains(Task.class, taskId));
+        Assertions.assertEquals(Task.Status.DONE, taskRepository.findById(taskId).orElseThrow().getStatus());
+    }
+
+    @Test
+    public void bulkStatusChangeEvictsTasks() {
+        Cache cache = entityManagerFactory.getCache();
+        long taskId = taskRepository.save(new Task(null, "Task", "Description", Task.Status.PENDING,
+                Task.Priority.LOW, AUTHOR, USER)).getId();
+        cache.evict(Task.class);
+        taskRepository.findById(taskId).orElseThrow();
+        Assertions.assertTrue(cache.contains(Task.class, taskId));
+
+        taskService.setTasksStatus(Map.of("ids", String.valueOf(taskId), "requester", AUTHOR), Map.of("status", "DONE"));
+
+        Assertions.assertFalse(cache.contains(Task.class, taskId));
+    }
+
+    @Test
+    public void deleteTaskEvictsOnlyItsComments() {
+        Cache cache = entityManagerFactory.getCache();
+        long deletedTaskId = taskRepository.save(new Task(null, "Task", "Description", Task.Status.PENDING,
+                Task.Priority.LOW, AUTHOR, USER)).getId();
+        long otherTaskId = taskRepository.save(new Task(null, "Task", "Description", Task.Status.PENDING,
+                Task.Priority.LOW, AUTHOR, USER)).getId();
+        long deletedCommentId = commentRepository.save(new Comment(deletedTaskId, AUTHOR, "Hello")).getId();
+        long otherCommentId = commentRepository.save(new Comment(otherTaskId, AUTHOR, "Hello")).getId();
+        cache.evict(Comment.class);
+        commentRepository.findAllByTaskIdIn(new Long[]{deletedTaskId, otherTaskId});
+        Assertions.assertTrue(cache.contains(Comment.class, deletedCommentId));
+        Assertions.assertTrue(cache.contains(Comment.class, otherCommentId));
+
+        taskService.deleteTask(deletedTaskId, null, Map.of("author", AUTHOR));
+
+        Assertions.assertFalse(cache.contains(Comment.class, deletedCommentId));
+        Assertions.assertTrue(cache.contains(Comment.class, otherCommentId));
+    }
+
+    @Test
+    public void repeatedUserLookupRunsNoQuery() {
+        Assertions.assertNotNull(userService.findUserByEmail(USER));
+        Assertions.assertNull(userService.findUserByEmail("unknown@email.me"));
+        QueryCounter.start();
+        Assertions.assertEquals(USER, userService.findUserByEmail(USER).getEmail());
+        Assertions.assertNull(userService.findUserByEmail("unknown@email.me"));
+        QueryCounter.assertCount(0);
+    }
+
+    @Test
+    public void savedUserIsNoLongerUnknown() {
+        String email = "new@user.test";
+        Assertions.assertNull(userService.findUserByEmail(email));
+
+        userRepository.save(new User(email, "password"));
+
+        Assertions.assertEquals(email, userService.findUserByEmail(email).getEmail());
+    }
+}
@@ -1,31 +1,49 @@
 package ru.sb.TaskManagement;
 
 import com.jayway.jsonpath.spi.json.JacksonJsonProvider;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.jdbc.SqlGroup;
 import org.springframework.test.util.JsonExpectationsHelper;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultMatcher;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.sb.config.security.JwtService;
+import ru.sb.config.security.UserRevocationService;
 import ru.sb.model.Comment;
 import ru.sb.model.CommentRepository;
 import ru.sb.model.Task;
 import ru.sb.model.TaskRepository;
+import ru.sb.service.TaskService;
+import ru.sb.service.UserDirectory;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
 @AutoConfigureMockMvc
+@Import(QueryCounter.class)
 @SqlGroup(value = {
         @Sql(
                 scripts = "classpath:/db/postgres/test.sql",
@@ -37,6 +55,18 @@ public class TaskControllerTests {
     private TaskRepository taskRepository;
     @Autowired
     private CommentRepository commentRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private UserRevocationService userRevocationService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private UserDirectory userDirectory;
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
 
     private static JacksonJsonProvider jsonProvider;
     private static JsonExpectationsHelper helper;
@@ -50,6 +80,7 @@ public class TaskControllerTests {
     private static final int MAX_DESCRIPTION_LENGTH = 300;
     private static final int MAX_EMAIL_LENGTH = 30;
     private static final int MAX_COMMENT_LENGTH = 300;
+    private static final int EXPORT_CHUNK_SIZE = 500;
 
     private static Task defaultTask;
 
@@ -62,10 +93,17 @@ public class TaskControllerTests {
         defaultTask = new Task(null, "Task", "Description", Task.Status.PENDING, Task.Priority.LOW, AUTHOR, USER);
     }
 
+    @BeforeEach
+    public void clearCaches() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        userDirectory.invalidateAll();
+    }
+
     @Test
     public void addTask() throws Exception {
         Object taskMap = getTaskAsJsonObject();
 
+        QueryCounter.start();
         String content = mvc.perform(MockMvcRequestBuilders
                         .post("/tasks")
                         .header("Authorization", "Bearer " + jwt)
@@ -74,6 +112,7 @@ public class TaskControllerTests {
                 .andExpect(status().isCreated())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andReturn().getResponse().getContentAsString();
+        QueryCounter.assertCount(2);
 
         Object actualTask = jsonProvider.parse(content);
         removeIdFromTask(actualTask);
@@ -183,6 +222,53 @@ public class TaskControllerTests {
         taskPerformerInvalidValue(MockMvcRequestBuilders.post("/tasks"), getTaskAsJsonObject());
     }
 
+    @Test
+    public void addTasks() throws Exception {
+        Object firstTaskMap = getTaskAsJsonObject();
+        Object invalidTaskMap = getTaskAsJsonObject();
+        jsonProvider.removeProperty(invalidTaskMap, "title");
+        Object secondTaskMap = getTaskAsJsonObject();
+        jsonProvider.setProperty(secondTaskMap, "title", "Second task");
+        List<Object> tasksArray = jsonProvider.createArray();
+        jsonProvider.setArrayIndex(tasksArray, 0, firstTaskMap);
+        jsonProvider.setArrayIndex(tasksArray, 1, invalidTaskMap);
+        jsonProvider.setArrayIndex(tasksArray, 2, secondTaskMap);
+        long version = taskRepository.findTasksVersion(AUTHOR);
+
+        QueryCounter.start();
+        mvc.perform(MockMvcRequestBuilders
+                        .post("/tasks/batch")
+                        .header("Authorization", "Bearer " + jwt)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonProvider.toJson(tasksArray)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.tasks[0].index").value(0))
+                .andExpect(jsonPath("$.tasks[0].task.title").value("Task"))
+                .andExpect(jsonPath("$.tasks[1].index").value(1))
+                .andExpect(jsonPath("$.tasks[1].['error message']").value("ERROR[400]: Field(title) not found."))
+                .andExpect(jsonPath("$.tasks[2].index").value(2))
+                .andExpect(jsonPath("$.tasks[2].task.title").value("Second task"));
+        QueryCounter.assertCount(2);
+
+        List<Task> tasks = taskRepository.findAll(Sort.by("id")).stream()
+                .filter(task -> task.getId() > 3)
+                .toList();
+        Assertions.assertEquals(2, tasks.size());
+        Assertions.assertEquals("Task", tasks.get(0).getTitle());
+        Assertions.assertEquals("Second task", tasks.get(1).getTitle());
+        // Both tasks are inserted by one statement, so the statement-level trigger bumps the version once.
+        Assertions.assertEquals(version + 1, taskRepository.findTasksVersion(AUTHOR));
+    }
+
+    @Test
+    public void addTasksEmpty() throws Exception {
+        errorRequest(MockMvcRequestBuilders.post("/tasks/batch"), jwt, jsonProvider.createArray(),
+                status().isBadRequest(), "ERROR[400]: Tasks not found.");
+    }
+
     @Test
     public void updateTask() throws Exception {
         Object taskMap = getTaskAsJsonObject();
@@ -191,21 +277,133 @@ public class TaskControllerTests {
         jsonProvider.setProperty(taskMap, "status", "DONE");
         jsonProvider.setProperty(taskMap, "priority", "HIGH");
         jsonProvider.setProperty(taskMap, "performer", null);
+        long taskId = taskRepository.save(defaultTask).getId();
 
+        QueryCounter.start();
         String content = mvc.perform(MockMvcRequestBuilders
-                        .put("/tasks/{taskId}", taskRepository.save(defaultTask).getId())
+                        .put("/tasks/{taskId}", taskId)
                         .header("Authorization", "Bearer " + jwt)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(jsonProvider.toJson(taskMap)))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andReturn().getResponse().getContentAsString();
+        QueryCounter.assertCount(1);
 
         Object actualTask = jsonProvider.parse(content);
         removeIdFromTask(actualTask);
         helper.assertJsonEqual(jsonProvider.toJson(putTaskInMap(taskMap)), jsonProvider.toJson(actualTask), true);
     }
 
+    @Test
+    public void updateTaskIfMatch() throws Exception {
+        long taskId = taskRepository.save(new Task(null, "Task", "Description", Task.Status.PENDING,
+                Task.Priority.LOW, AUTHOR, USER)).getId();
+        Object map = jsonProvider.createMap();
+        jsonProvider.setProperty(map, "title", "Updated task");
+
+        mvc.perform(MockMvcRequestBuilders
+                        .put("/tasks/{taskId}", taskId)
+                        .header("Authorization", "Bearer " + jwt)
+                        .header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonProvider.toJson(map)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.task.title").value("Updated task"));
+
+        errorRequest(MockMvcRequestBuilders.put("/tasks/{taskId}", taskId).header("If-Match", "\"0\""), jwt,
+                map, status().isPreconditionFailed(),
+                String.format("ERROR[412]: The task(%d) was changed, it doesn't match If-Match.", taskId));
+    }
+
+    @Test
+    public void deleteTaskIfMatchStale() throws Exception {
+        long taskId = taskRepository.save(new Task(null, "Task", "Description", Task.Status.PENDING,
+                Task.Priority.LOW, AUTHOR, USER)).getId();
+        mvc.perform(MockMvcRequestBuilders
+                        .delete("/tasks/{taskId}", taskId)
+                        .header("Authorization", "Bearer " + jwt)
+                        .header("If-Match", "\"1\""))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath(ERROR_MESSAGE_PATH)
+                        .value(String.format("ERROR[412]: The task(%d) was changed, it doesn't match If-Match.", taskId)));
+        Assertions.assertTrue(taskRepository.existsById(taskId));
+    }
+
+    @Test
+    public void getTask() throws Exception {
+        Task task = taskRepository.save(new Task(null, "Task", "Description", Task.Status.PENDING,
+                Task.Priority.LOW, AUTHOR, USER));
+        entityManagerFactory.getCache().evict(Task.class);
+        QueryCounter.start();
+        mvc.perform(MockMvcRequestBuilders
+                        .get("/tasks/{taskId}", task.getId())
+                        .header("Authorization", "Bearer " + jwt))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0\""))
+                .andExpect(jsonPath("$.task.id").value(task.getId()))
+                .andExpect(jsonPath("$.task.title").value("Task"));
+        QueryCounter.assertCount(1);
+
+        // The task is served by the second-level cache now.
+        QueryCounter.start();
+        mvc.perform(MockMvcRequestBuilders
+                        .get("/tasks/{taskId}", task.getId())
+                        .header("Authorization", "Bearer " + jwt)
+                        .header("If-None-Match", "\"0\""))
+                .andExpect(status().isNotModified());
+        QueryCounter.assertCount(0);
+    }
+
+    @Test
+    public void getTaskNotExists() throws Exception {
+        mvc.perform(MockMvcRequestBuilders
+                        .get("/tasks/{taskId}", 0)
+                        .header("Authorization", "Bearer " + jwt))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath(ERROR_MESSAGE_PATH).value("ERROR[404]: A task(0) not exists."));
+    }
+
+    @Test
+    public void addCommentIfMatch() throws Exception {
+        long taskId = taskRepository.save(new Task(null, "Task", "Description", Task.Status.PENDING,
+                Task.Priority.LOW, AUTHOR, USER)).getId();
+        Object map = jsonProvider.createMap();
+        jsonProvider.setProperty(map, "text", "Hello World!");
+
+        mvc.perform(MockMvcRequestBuilders
+                        .put("/tasks/{taskId}/comment", taskId)
+                        .header("Authorization", "Bearer " + jwt)
+                        .header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonProvider.toJson(map)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.comment.taskId").value(taskId));
+
+        errorRequest(MockMvcRequestBuilders.put("/tasks/{taskId}/comment", taskId).header("If-Match", "\"1\""), jwt,
+                map, status().isPreconditionFailed(),
+                String.format("ERROR[412]: The task(%d) was changed, it doesn't match If-Match.", taskId));
+        Assertions.assertEquals(1, commentRepository.findAllByTaskIdIn(new Long[]{taskId}).size());
+    }
+
+    @Test
+    public void updateTaskIfMatchInBodyIgnored() throws Exception {
+        long taskId = taskRepository.save(new Task(null, "Task", "Description", Task.Status.PENDING,
+                Task.Priority.LOW, AUTHOR, USER)).getId();
+        Object map = jsonProvider.createMap();
+        jsonProvider.setProperty(map, "title", "Updated task");
+        jsonProvider.setProperty(map, "If-Match", "\"5\"");
+
+        mvc.perform(MockMvcRequestBuilders
+                        .put("/tasks/{taskId}", taskId)
+                        .header("Authorization", "Bearer " + jwt)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonProvider.toJson(map)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""));
+    }
+
     @Test
     public void updateTaskNotAuthorized() throws Exception {
         mvc.perform(MockMvcRequestBuilders
@@ -317,6 +515,7 @@ public class TaskControllerTests {
         jsonProvider.setProperty(map, "tasks", tasksArray);
         jsonProvider.setProperty(map, "total", 5);
 
+        QueryCounter.start();
         String content = mvc.perform(MockMvcRequestBuilders
                         .get("/tasks?author={a}&performer={p}&status={s}&priority={pr}&offset={o}&limit={l}&comments={c}",
                                 AUTHOR, USER, Task.Status.DONE, Task.Priority.HIGH, 1, 2, true)
@@ -324,10 +523,40 @@ public class TaskControllerTests {
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andReturn().getResponse().getContentAsString();
+        QueryCounter.assertCount(4);
 
         helper.assertJsonEqual(jsonProvider.toJson(map), content, true);
     }
 
+    @Test
+    public void getTasksNotModified() throws Exception {
+        String eTag = mvc.perform(MockMvcRequestBuilders
+                        .get("/tasks?author={a}", "ME")
+                        .header("Authorization", "Bearer " + jwt))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        QueryCounter.start();
+        mvc.perform(MockMvcRequestBuilders
+                        .get("/tasks?author={a}", "ME")
+                        .header("Authorization", "Bearer " + jwt)
+                        .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        QueryCounter.assertCount(1);
+
+        taskRepository.save(new Task(null, "Task", "Description", Task.Status.PENDING, Task.Priority.LOW, AUTHOR, USER));
+        String newETag = mvc.perform(MockMvcRequestBuilders
+                        .get("/tasks?author={a}", "ME")
+                        .header("Authorization", "Bearer " + jwt)
+                        .header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andReturn().getResponse().getHeader("ETag");
+        Assertions.assertNotEquals(eTag, newETag);
+    }
+
     @Test
     public void getTasksNotAuthorized() throws Exception {
         mvc.perform(MockMvcRequestBuilders
@@ -335,6 +564,22 @@ public class TaskControllerTests {
                 .andExpect(status().isForbidden());
     }
 
+    @Test
+    public void getTasksRevokedUser() throws Exception {
+        jdbcTemplate.update("INSERT INTO user_revocations(email) VALUES (?)", USER);
+        userRevocationService.refresh();
+        mvc.perform(MockMvcRequestBuilders
+                        .get("/tasks")
+                        .header("Authorization", "Bearer " + jwtUser))
+                .andExpect(status().isForbidden());
+        jdbcTemplate.update("DELETE FROM user_revocations WHERE email = ?", USER);
+        userRevocationService.refresh();
+        mvc.perform(MockMvcRequestBuilders
+                        .get("/tasks")
+                        .header("Authorization", "Bearer " + jwtUser))
+                .andExpect(status().isOk());
+    }
+
     @Test
     public void getTasksWithoutFilters() throws Exception {
         mvc.perform(MockMvcRequestBuilders
@@ -472,15 +717,246 @@ public class TaskControllerTests {
                         .value("ERROR[400]: Filter(comments) is not Boolean type."));
     }
 
+    @Test
+    public void getTasksCursor() throws Exception {
+        Task[] tasks = saveTasks();
+        String next = "";
+        for (int i = 0; i < 3; i++) {
+            QueryCounter.start();
+            String content = mvc.perform(MockMvcRequestBuilders
+                            .get("/tasks?author={a}&performer={p}&status={s}&priority={pr}&limit={l}&cursor={c}",
+                                    AUTHOR, USER, Task.Status.DONE, Task.Priority.HIGH, 2, next)
+                            .header("Authorization", "Bearer " + jwt))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andReturn().getResponse().getContentAsString();
+            QueryCounter.assertCount(2);
+
+            Object tasksArray = jsonProvider.createArray();
+            for (int j = 2 * i; j < Math.min(2 * i + 2, 5); j++) {
+                jsonProvider.setArrayIndex(tasksArray, j - 2 * i, getTaskAsJsonObject(tasks[j]));
+            }
+            Object actual = jsonProvider.parse(content);
+            next = (String) jsonProvider.getMapValue(actual, "next");
+            Object map = jsonProvider.createMap();
+            jsonProvider.setProperty(map, "tasks", tasksArray);
+            jsonProvider.setProperty(map, "next", next);
+            helper.assertJsonEqual(jsonProvider.toJson(map), content, true);
+            if (i < 2) {
+                Assertions.assertNotNull(next);
+            }
+        }
+        Assertions.assertNull(next);
+    }
+
+    @Test
+    public void getTasksCursorWithOffset() throws Exception {
+        errorFilterRequest(MockMvcRequestBuilders.get("/tasks?offset={o}&limit={l}&cursor={c}", 1, 2, ""),
+                "ERROR[400]: Filters(offset) and (cursor) can't be used together.");
+    }
+
+    @Test
+    public void getTasksCursorWithoutLimit() throws Exception {
+        errorFilterRequest(MockMvcRequestBuilders.get("/tasks?cursor={c}", ""),
+                "ERROR[400]: For a cursor need to provide a limit value > 0.");
+    }
+
+    @Test
+    public void getTasksCursorInvalidValue() throws Exception {
+        errorFilterRequest(MockMvcRequestBuilders.get("/tasks?limit={l}&cursor={c}", 2, "not a cursor"),
+                "ERROR[400]: Filter(cursor) is invalid.");
+    }
+
+    @Test
+    public void searchTasks() throws Exception {
+        Task inDescription = taskRepository.save(new Task(null, "Weekly", "Prepare the release report.",
+                Task.Status.PENDING, Task.Priority.LOW, AUTHOR, USER));
+        Task inTitle = taskRepository.save(new Task(null, "Release report", "Weekly.",
+                Task.Status.PENDING, Task.Priority.LOW, AUTHOR, USER));
+        taskRepository.save(new Task(null, "Release report", "Weekly.", Task.Status.DONE, Task.Priority.LOW, AUTHOR, USER));
+        taskRepository.save(new Task(null, "Weekly", "Deploy the release.", Task.Status.PENDING, Task.Priority.LOW, AUTHOR, USER));
+
+        QueryCounter.start();
+        mvc.perform(MockMvcRequestBuilders
+                        .get("/tasks/search?q={q}&author={a}&status={s}&limit={l}", "reports", "ME", Task.Status.PENDING, 1)
+                        .header("Authorization", "Bearer " + jwt))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.tasks[0].id").value(inTitle.getId()))
+                .andExpect(jsonPath("$.tasks[1]").doesNotExist());
+        QueryCounter.assertCount(2);
+
+        mvc.perform(MockMvcRequestBuilders
+                        .get("/tasks/search?q={q}&author={a}&status={s}&offset={o}&limit={l}",
+                                "reports", "ME", Task.Status.PENDING, 1, 1)
+                        .header("Authorization", "Bearer " + jwt))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.tasks[0].id").value(inDescription.getId()))
+                .andExpect(jsonPath("$.tasks[1]").doesNotExist());
+    }
+
+    @Test
+    public void searchTasksRanksAllMatches() throws Exception {
+        jdbcTemplate.update("INSERT INTO tasks (title, description, status, priority, author) " +
+                        "SELECT 'Ranked ' || i, 'Needle', 'PENDING', 'LOW', ? FROM generate_series(1, ?) AS i",
+                AUTHOR, 20_000);
+        // The best match is the last inserted one.
+        Task inTitle = taskRepository.save(new Task(null, "Needle", "Description", Task.Status.PENDING,
+                Task.Priority.LOW, AUTHOR, null));
+        mvc.perform(MockMvcRequestBuilders
+                        .get("/tasks/search?q={q}&limit={l}", "needle", 10)
+                        .header("Authorization", "Bearer " + jwt))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(20_001))
+                .andExpect(jsonPath("$.tasks.length()").value(10))
+                .andExpect(jsonPath("$.tasks[0].id").value(inTitle.getId()));
+    }
+
+    @Test
+    public void searchTasksQueryNotProvided() throws Exception {
+        errorFilterRequest(MockMvcRequestBuilders.get("/tasks/search?limit={l}", 10),
+                "ERROR[400]: Filter(q) not found.");
+    }
+
+    @Test
+    public void searchTasksWithoutLimit() throws Exception {
+        errorFilterRequest(MockMvcRequestBuilders.get("/tasks/search?q={q}", "task"),
+                "ERROR[400]: For a search need to provide a limit value > 0.");
+    }
+
+    @Test
+    public void searchTasksSkipMoreThanAvailable() throws Exception {
+        errorFilterRequest(MockMvcRequestBuilders.get("/tasks/search?q={q}&offset={o}&limit={l}", "juice", 1, 10),
+                "ERROR[400]: You wanted to skip 10, but after filtering there were only 1 items left.");
+    }
+
+    @Test
+    public void getTaskStats() throws Exception {
+        saveTasks();
+
+        QueryCounter.start();
+        mvc.perform(MockMvcRequestBuilders
+                        .get("/tasks/stats")
+                        .header("Authorization", "Bearer " + jwt))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.author.DONE.HIGH").value(5))
+                .andExpect(jsonPath("$.author.DONE.LOW").value(3))
+                .andExpect(jsonPath("$.author.PENDING.HIGH").value(1))
+                .andExpect(jsonPath("$.author.IN_PROCESS.HIGH").value(1))
+                .andExpect(jsonPath("$.author.PENDING.LOW").value(0))
+                .andExpect(jsonPath("$.performer.IN_PROCESS.HIGH").value(1))
+                .andExpect(jsonPath("$.performer.DONE.LOW").value(1))
+                .andExpect(jsonPath("$.performer.DONE.HIGH").value(0));
+        QueryCounter.assertCount(1);
+    }
+
+    @Test
+    public void getTaskStatsNotAuthorized() throws Exception {
+        mvc.perform(MockMvcRequestBuilders
+                        .get("/tasks/stats"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void exportTasks() throws Exception {
+        Task[] tasks = saveTasks();
+        Comment comment = commentRepository.save(new Comment(tasks[8].getId(), USER, "Hello (="));
+        comment = commentRepository.findById(comment.getId()).orElseThrow();
+
+        MvcResult result = mvc.perform(MockMvcRequestBuilders
+                        .get("/tasks/export?author={a}&priority={pr}&comments={c}", "ME", Task.Priority.LOW, true)
+                        .header("Authorization", "Bearer " + jwt))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String content = mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = content.split("\n");
+        Assertions.assertEquals(3, lines.length);
+        Object firstTaskMap = putTaskInMap(getTaskAsJsonObject(taskRepository.findById(3L).orElseThrow()));
+        List<Object> firstComments = jsonProvider.createArray();
+        jsonProvider.setArrayIndex(firstComments, 0, getCommentAsJsonObject(commentRepository.findById(3L).orElseThrow()));
+        jsonProvider.setProperty(firstTaskMap, "comments", firstComments);
+        helper.assertJsonEqual(jsonProvider.toJson(firstTaskMap), lines[0], true);
+        Object secondTaskMap = putTaskInMap(getTaskAsJsonObject(tasks[7]));
+        jsonProvider.setProperty(secondTaskMap, "comments", jsonProvider.createArray());
+        helper.assertJsonEqual(jsonProvider.toJson(secondTaskMap), lines[1], true);
+        Object thirdTaskMap = putTaskInMap(getTaskAsJsonObject(tasks[8]));
+        List<Object> thirdComments = jsonProvider.createArray();
+        jsonProvider.setArrayIndex(thirdComments, 0, getCommentAsJsonObject(comment));
+        jsonProvider.setProperty(thirdTaskMap, "comments", thirdComments);
+        helper.assertJsonEqual(jsonProvider.toJson(thirdTaskMap), lines[2], true);
+    }
+
+    @Test
+    public void exportTasksInChunksKeepsPersistenceContextEmpty() {
+        int exported = saveExportTasks(1001);
+
+        // The export joins the outer transaction, so its persistence context can be checked after the export.
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        transactionTemplate.executeWithoutResult(status -> {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            try {
+                taskService.exportTasks(Map.of("author", AUTHOR, "comments", "true")).writeTo(outputStream);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+            Assertions.assertEquals(exported, lines.length);
+            Assertions.assertTrue(lines[lines.length - 1].contains("\"comments\":[{"));
+            Session session = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory)
+                    .unwrap(Session.class);
+            Assertions.assertEquals(0, session.getStatistics().getEntityCount());
+        });
+    }
+
+    @Test
+    public void exportTasksQueryBudget() throws Exception {
+        int exported = saveExportTasks(1001);
+        int chunks = (exported + EXPORT_CHUNK_SIZE - 1) / EXPORT_CHUNK_SIZE;
+
+        // The export is written by the test thread, so its statements are counted.
+        QueryCounter.start();
+        taskService.exportTasks(Map.of("author", AUTHOR, "comments", "true")).writeTo(new ByteArrayOutputStream());
+        // One streaming query and one comment query per chunk.
+        QueryCounter.assertCount(1 + chunks);
+
+        QueryCounter.start();
+        taskService.exportTasks(Map.of("author", AUTHOR, "comments", "false")).writeTo(new ByteArrayOutputStream());
+        QueryCounter.assertCount(1);
+    }
+
+    @Test
+    public void exportTasksAuthorNull() throws Exception {
+        MvcResult result = mvc.perform(MockMvcRequestBuilders
+                        .get("/tasks/export?author={a}", "null")
+                        .header("Authorization", "Bearer " + jwt))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath(ERROR_MESSAGE_PATH)
+                        .value("ERROR[400]: Filter(author) can't be null."));
+    }
+
     @Test
     public void deleteTask() throws Exception {
         Task task = taskRepository.save(defaultTask);
+        QueryCounter.start();
         mvc.perform(MockMvcRequestBuilders
                         .delete("/tasks/{taskId}", task.getId())
                         .header("Authorization", "Bearer " + jwt))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(content().json(jsonProvider.toJson(putTaskInMap(getTaskAsJsonObject(task)))));
+        QueryCounter.assertCount(1);
     }
 
     @Test
@@ -521,6 +997,7 @@ public class TaskControllerTests {
         Object taskJson = getTaskAsJsonObject(task);
         jsonProvider.setProperty(taskJson, "status", "IN_PROCESS");
         Object expected = putTaskInMap(taskJson);
+        QueryCounter.start();
         mvc.perform(MockMvcRequestBuilders
                         .put("/tasks/{taskId}/status", task.getId())
                         .header("Authorization", "Bearer " + jwt)
@@ -529,6 +1006,7 @@ public class TaskControllerTests {
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(content().json(jsonProvider.toJson(expected)));
+        QueryCounter.assertCount(1);
     }
 
     @Test
@@ -609,6 +1087,7 @@ public class TaskControllerTests {
         jsonProvider.setProperty(performerJson, "performer", AUTHOR);
         Object taskJson = getTaskAsJsonObject(task);
         jsonProvider.setProperty(taskJson, "performer", AUTHOR);
+        QueryCounter.start();
         mvc.perform(MockMvcRequestBuilders
                         .put("/tasks/{taskId}/performer", task.getId())
                         .header("Authorization", "Bearer " + jwt)
@@ -617,6 +1096,7 @@ public class TaskControllerTests {
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(content().json(jsonProvider.toJson(putTaskInMap(taskJson)), true));
+        QueryCounter.assertCount(2);
     }
 
     @Test
@@ -687,12 +1167,104 @@ public class TaskControllerTests {
                         filedName, email));
     }
 
+    @Test
+    public void setTasksStatusByIds() throws Exception {
+        Task[] tasks = saveTasks();
+        Object map = jsonProvider.createMap();
+        jsonProvider.setProperty(map, "status", "IN_PROCESS");
+        Object taskJson = getTaskAsJsonObject(tasks[0]);
+        jsonProvider.setProperty(taskJson, "status", "IN_PROCESS");
+        Object tasksArray = jsonProvider.createArray();
+        jsonProvider.setArrayIndex(tasksArray, 0, taskJson);
+        Object expected = jsonProvider.createMap();
+        jsonProvider.setProperty(expected, "tasks", tasksArray);
+        jsonProvider.setProperty(expected, "total", 1);
+
+        QueryCounter.start();
+        mvc.perform(MockMvcRequestBuilders
+                        .put("/tasks/batch/status?ids={i}", tasks[0].getId() + "," + tasks[5].getId())
+                        .header("Authorization", "Bearer " + jwt)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonProvider.toJson(map)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json(jsonProvider.toJson(expected), true));
+        QueryCounter.assertCount(1);
+        Assertions.assertEquals(Task.Status.DONE, taskRepository.findById(tasks[5].getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    public void setTasksStatusByFilters() throws Exception {
+        Task[] tasks = saveTasks();
+        Object map = jsonProvider.createMap();
+        jsonProvider.setProperty(map, "status", "DONE");
+
+        mvc.perform(MockMvcRequestBuilders
+                        .put("/tasks/batch/status?author={a}&status={s}&priority={p}", "ME", "PENDING", "HIGH")
+                        .header("Authorization", "Bearer " + jwt)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonProvider.toJson(map)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.tasks[0].id").value(tasks[6].getId()))
+                .andExpect(jsonPath("$.tasks[0].status").value("DONE"));
+    }
+
+    @Test
+    public void setTasksStatusWithoutFilters() throws Exception {
+        Object map = jsonProvider.createMap();
+        jsonProvider.setProperty(map, "status", "DONE");
+        errorRequest(MockMvcRequestBuilders.put("/tasks/batch/status"), jwt, map, status().isBadRequest(),
+                "ERROR[400]: At least one of the filters [ids, author, performer, status, priority] must be provided.");
+    }
+
+    @Test
+    public void setTasksStatusIdsInvalidValue() throws Exception {
+        Object map = jsonProvider.createMap();
+        jsonProvider.setProperty(map, "status", "DONE");
+        errorRequest(MockMvcRequestBuilders.put("/tasks/batch/status?ids={i}", "1,a"), jwt, map, status().isBadRequest(),
+                "ERROR[400]: Filter(ids) is not a list of Long type.");
+    }
+
+    @Test
+    public void setTasksPerformerByIds() throws Exception {
+        Task[] tasks = saveTasks();
+        Object map = jsonProvider.createMap();
+        jsonProvider.setProperty(map, "performer", null);
+
+        QueryCounter.start();
+        mvc.perform(MockMvcRequestBuilders
+                        .put("/tasks/batch/performer?ids={i}", tasks[0].getId() + "," + tasks[5].getId())
+                        .header("Authorization", "Bearer " + jwtUser)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonProvider.toJson(map)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.tasks[0].id").value(tasks[5].getId()))
+                .andExpect(jsonPath("$.tasks[0].performer").isEmpty());
+        QueryCounter.assertCount(1);
+        Assertions.assertEquals(USER, taskRepository.findById(tasks[0].getId()).orElseThrow().getPerformer());
+    }
+
+    @Test
+    public void setTasksPerformerNotExists() throws Exception {
+        String email = "unknown@email.me";
+        Object map = jsonProvider.createMap();
+        jsonProvider.setProperty(map, "performer", email);
+        errorRequest(MockMvcRequestBuilders.put("/tasks/batch/performer?author={a}", "ME"), jwt, map, status().isBadRequest(),
+                String.format("ERROR[400]: Field(%s) can't be set, because user with specified email(%s) not exists.",
+                        "performer", email));
+    }
+
     @Test
     public void addComment() throws Exception {
         Task task = taskRepository.save(defaultTask);
         Object map = jsonProvider.createMap();
         String text = "Hello World!";
         jsonProvider.setProperty(map, "text", text);
+        QueryCounter.start();
         String content = mvc.perform(MockMvcRequestBuilders
                         .put("/tasks/{taskId}/comment", task.getId())
                         .header("Authorization", "Bearer " + jwt)
@@ -701,6 +1273,7 @@ public class TaskControllerTests {
                 .andExpect(status().isCreated())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andReturn().getResponse().getContentAsString();
+        QueryCounter.assertCount(1);
         Object commentObject = jsonProvider.getMapValue(jsonProvider.parse(content), "comment");
         Assertions.assertEquals(task.getId(), ((Integer) (jsonProvider.getMapValue(commentObject, "taskId"))).longValue());
         Assertions.assertEquals(AUTHOR, jsonProvider.getMapValue(commentObject, "author"));
@@ -865,6 +1438,18 @@ public class TaskControllerTests {
         return tasks;
     }
 
+    /**
+     * Saves tasks of AUTHOR with a comment each, returns the number of tasks of AUTHOR.
+     */
+    private int saveExportTasks(int count) {
+        jdbcTemplate.update("INSERT INTO tasks (title, description, status, priority, author) " +
+                "SELECT 'Export ' || i, 'Description', 'PENDING', 'LOW', ? FROM generate_series(1, ?) AS i",
+                AUTHOR, count);
+        jdbcTemplate.update("INSERT INTO comments (task_id, author, text) " +
+                "SELECT id, ?, 'Hello' FROM tasks WHERE title LIKE 'Export %'", USER);
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tasks WHERE author = ?", Integer.class, AUTHOR);
+    }
+
     private Object getCommentAsJsonObject(Comment comment) {
         Object map = jsonProvider.createMap();
         jsonProvider.setProperty(map, "id", comment.getId());
@@ -0,0 +1,68 @@
+package ru.sb.TaskManagement;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlGroup;
+import ru.sb.model.Task;
+import ru.sb.model.TaskFilter;
+import ru.sb.model.TaskRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Pins the JPA specification and the JDBC conditions of TaskFilter to the same rows, for every combination
+ * of the filters.
+ */
+@SpringBootTest
+@SqlGroup(value = {
+        @Sql(
+                scripts = "classpath:/db/postgres/test.sql",
+                executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)})
+public class TaskFilterTests {
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private static final String AUTHOR = "admin@sb.ru";
+    private static final String USER = "user@mail.ru";
+
+    @Test
+    public void specificationAndSqlConditionsMatchTheSameTasks() {
+        List<Task> tasks = new ArrayList<>();
+        for (Task.Status status : Task.Status.values()) {
+            for (Task.Priority priority : Task.Priority.values()) {
+                tasks.add(new Task(null, "Task", "Description", status, priority, AUTHOR, USER));
+                tasks.add(new Task(null, "Task", "Description", status, priority, USER, AUTHOR));
+                tasks.add(new Task(null, "Task", "Description", status, priority, AUTHOR, null));
+            }
+        }
+        taskRepository.saveAll(tasks);
+
+        List<String> authors = Arrays.asList("", AUTHOR, USER, "nobody@mail.ru");
+        List<String> performers = Arrays.asList("", null, AUTHOR, USER);
+        List<Task.Status> statuses = new ArrayList<>(Arrays.asList(Task.Status.values()));
+        statuses.add(null);
+        List<Task.Priority> priorities = new ArrayList<>(Arrays.asList(Task.Priority.values()));
+        priorities.add(null);
+        for (String author : authors) {
+            for (String performer : performers) {
+                for (Task.Status status : statuses) {
+                    for (Task.Priority priority : priorities) {
+                        TaskFilter filter = new TaskFilter(author, performer, status, priority);
+                        List<Long> specificationIds = taskRepository.findAll(filter.toSpecification(), Sort.by("id"))
+                                .stream().map(Task::getId).toList();
+                        List<Long> sqlIds = new ArrayList<>();
+                        taskRepository.streamAll(filter, 100, task -> sqlIds.add(task.getId()));
+                        Assertions.assertEquals(specificationIds, sqlIds, () -> String.format(
+                                "author=%s, performer=%s, status=%s, priority=%s", author, performer, status, priority));
+                    }
+                }
+            }
+        }
+    }
+}
@@ -1,17 +1,22 @@
 package ru.sb.TaskManagement;
 
 import com.jayway.jsonpath.spi.json.JacksonJsonProvider;
+import jakarta.persistence.EntityManagerFactory;
 import org.hamcrest.BaseMatcher;
 import org.hamcrest.Description;
+import org.hibernate.SessionFactory;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultMatcher;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ru.sb.service.UserDirectory;
 
 import java.util.regex.Pattern;
 
@@ -19,10 +24,15 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 @SpringBootTest
 @AutoConfigureMockMvc
+@Import(QueryCounter.class)
 public class UserControllerTests {
 
     @Autowired
     private MockMvc mvc;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private UserDirectory userDirectory;
     private static JacksonJsonProvider jsonProvider;
     private final static String ERROR_MESSAGE_PATH = "$.['error message']";
 
@@ -31,11 +41,18 @@ public class UserControllerTests {
         jsonProvider = new JacksonJsonProvider();
     }
 
+    @BeforeEach
+    public void clearCaches() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        userDirectory.invalidateAll();
+    }
+
     @Test
     public void login() throws Exception {
         Object map = jsonProvider.createMap();
         jsonProvider.setProperty(map, "email", "admin@sb.ru");
         jsonProvider.setProperty(map, "password", "admin");
+        QueryCounter.start();
         mvc.perform(MockMvcRequestBuilders
                         .post("/user/login")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -53,6 +70,7 @@ public class UserControllerTests {
                         return Pattern.compile(".+\\..+\\..+").matcher((String) actual).matches();
                     }
                 }));
+        QueryCounter.assertCount(1);
     }
 
     @Test
@@ -60,14 +78,18 @@ public class UserControllerTests {
         Object map = jsonProvider.createMap();
         jsonProvider.setProperty(map, "email", "user@sb.ru");
         jsonProvider.setProperty(map, "password", "123");
+        QueryCounter.start();
         errorRequest(map, status().isForbidden(), "ERROR[403]: Authentication failed.");
+        QueryCounter.assertCount(1);
     }
 
     @Test
     public void loginEmailNotProvided() throws Exception {
         Object noEmailMap = jsonProvider.createMap();
         jsonProvider.setProperty(noEmailMap, "password", "123");
+        QueryCounter.start();
         errorRequest(noEmailMap, status().isBadRequest(), "ERROR[400]: The Email and Password fields are required and cannot be null.");
+        QueryCounter.assertCount(0);
     }
 
     @Test